@@ -0,0 +1,433 @@
+#define _GNU_SOURCE
+#include <errno.h>
+#include <ftw.h>
+#include <stdarg.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <unistd.h>
+#include <sys/stat.h>
+
+#include "bench_fixture.h"
+
+#define NS_CLEAN  "mnt:[4026531840]"
+#define NS_DENIED "mnt:[4026532719]"
+
+typedef struct {
+    const char* name;
+    const char* clean;
+    const char* rooted;
+} fixture_prop;
+
+static const fixture_prop props[] = {
+    {"ro.boot.verifiedbootstate", "green", "orange"},
+    {"ro.oem_unlock_supported", "0", "1"},
+    {"ro.build.fingerprint",
+     "google/raven/raven:14/UQ1A.240205.004/11269751:user/release-keys",
+     "google/lineage_raven/raven:14/UQ1A.240205.004/eng.build:userdebug/test-keys"},
+};
+
+static int active_rooted = -1;
+
+const char* fixture_property(const char* name) {
+    if (active_rooted < 0) return NULL;
+    for (size_t i = 0; i < sizeof(props) / sizeof(props[0]); i++) {
+        if (strcmp(props[i].name, name) == 0) return active_rooted ? props[i].rooted : props[i].clean;
+    }
+    return NULL;
+}
+
+// ----- Tree helpers -----
+
+static int make_dirs(const char* path) {
+    char buf[4096];
+    snprintf(buf, sizeof(buf), "%s", path);
+    for (char* p = buf + 1; *p; p++) {
+        if (*p != '/') continue;
+        *p = '\0';
+        if (mkdir(buf, 0755) != 0 && errno != EEXIST) return -1;
+        *p = '/';
+    }
+    return mkdir(buf, 0755) != 0 && errno != EEXIST ? -1 : 0;
+}
+
+static void join(char* out, size_t size, const char* root, const char* rel) {
+    snprintf(out, size, "%s%s", root, rel);
+}
+
+static int make_dir(const char* root, const char* rel) {
+    char path[4096];
+    join(path, sizeof(path), root, rel);
+    return make_dirs(path);
+}
+
+// Opens root + rel for writing, creating the parent directories
+static FILE* create_file(const char* root, const char* rel) {
+    char path[4096];
+    join(path, sizeof(path), root, rel);
+    char* slash = strrchr(path, '/');
+    *slash = '\0';
+    if (make_dirs(path) != 0) return NULL;
+    *slash = '/';
+    return fopen(path, "w");
+}
+
+static int write_file(const char* root, const char* rel, const char* fmt, ...) {
+    FILE* f = create_file(root, rel);
+    if (!f) return -1;
+    va_list ap;
+    va_start(ap, fmt);
+    vfprintf(f, fmt, ap);
+    va_end(ap);
+    return fclose(f);
+}
+
+// ----- /proc/<pid>/maps -----
+
+static const char* const map_paths[] = {
+    "/apex/com.android.runtime/lib64/bionic/libc.so",
+    "/apex/com.android.art/lib64/libart.so",
+    "/system/lib64/libhwui.so",
+    "/system/lib64/libbinder.so",
+    "/system/lib64/libandroid_runtime.so",
+    "/system/framework/arm64/boot-framework.oat",
+    "/system/framework/framework.jar",
+    "[anon:dalvik-main space (region space)]",
+    "[anon:libc_malloc]",
+    "[anon:.bss]",
+    "",
+    "/dev/__properties__/u:object_r:build_prop:s0",
+    "/data/app/~~Xq4k2p==/com.blemanagerapps-8sPzA1==/base.apk",
+    "/data/dalvik-cache/arm64/system@framework@boot.art",
+};
+
+static const char* const map_perms[] = { "r--p", "r-xp", "rw-p", "---p" };
+
+// Mappings Magisk/Zygisk and LSPosed leave in an injected process
+static const char* const rooted_maps[] = {
+    "rwxp 00000000 00:00 0                          [anon:zygisk]",
+    "r-xp 00000000 fd:05 91234                      /data/adb/modules/zygisk_lsposed/lib/arm64-v8a/liblspd.so",
+    "rwxp 00000000 00:00 0                          [anon:jit-zygisk-cache]",
+    "r-xp 00000000 fd:05 91311                      /data/adb/magisk/libzygisk.so",
+};
+
+static int write_maps(const char* root, const char* rel, int lines, int rooted) {
+    FILE* f = create_file(root, rel);
+    if (!f) return -1;
+    unsigned long addr = 0x5c3a000000UL;
+    // Injected lines sit three quarters in, so a scan stopping at them still reads most of the file
+    int injected_at = lines * 3 / 4;
+    for (int i = 0; i < lines; i++) {
+        unsigned long size = 0x1000UL * (1 + i % 16);
+        if (rooted && i >= injected_at && i < injected_at + 4) {
+            fprintf(f, "%010lx-%010lx %s\n", addr, addr + size, rooted_maps[i - injected_at]);
+        } else {
+            const char* path = map_paths[i % (sizeof(map_paths) / sizeof(map_paths[0]))];
+            fprintf(f, "%010lx-%010lx %s %08x fd:%02x %-8d %17s%s\n", addr, addr + size,
+                    map_perms[i % 4], (i % 32) * 0x1000, i % 7, path[0] == '/' ? 1000 + i : 0, "", path);
+        }
+        addr += size;
+    }
+    return fclose(f);
+}
+
+// ----- /proc/<pid>/mountinfo -----
+
+static const char* const base_mounts[] = {
+    "/ / ro,relatime shared:1 - ext4 /dev/block/dm-0 ro,seclabel",
+    "/ /dev rw,nosuid,relatime shared:2 - tmpfs tmpfs rw,seclabel,mode=755",
+    "/ /dev/pts rw,relatime shared:3 - devpts devpts rw,seclabel,mode=600,ptmxmode=000",
+    "/ /proc rw,relatime shared:4 - proc proc rw,gid=3009,hidepid=invisible",
+    "/ /sys rw,relatime shared:5 - sysfs sysfs rw,seclabel",
+    "/ /sys/fs/selinux rw,relatime shared:6 - selinuxfs selinuxfs rw",
+    "/ /system ro,relatime shared:7 - ext4 /dev/block/dm-1 ro,seclabel",
+    "/ /vendor ro,relatime shared:8 - ext4 /dev/block/dm-2 ro,seclabel",
+    "/ /product ro,relatime shared:9 - ext4 /dev/block/dm-3 ro,seclabel",
+    "/ /system_ext ro,relatime shared:10 - ext4 /dev/block/dm-4 ro,seclabel",
+    "/ /metadata rw,nosuid,nodev,noatime shared:11 - ext4 /dev/block/sda12 rw,seclabel",
+    "/ /data rw,nosuid,nodev,noatime shared:12 - f2fs /dev/block/dm-5 rw,seclabel",
+    "/ /cache rw,nosuid,nodev,noatime shared:13 - ext4 /dev/block/sda13 rw,seclabel",
+    "/ /mnt rw,nosuid,nodev,noexec,relatime shared:14 - tmpfs tmpfs rw,seclabel,mode=755",
+    "/ /apex rw,nosuid,nodev,noexec,relatime shared:15 - tmpfs tmpfs rw,seclabel,mode=755",
+    "/ /linkerconfig rw,nosuid,nodev,noexec,relatime shared:16 - tmpfs tmpfs rw,seclabel,mode=755",
+    "/media /storage/emulated rw,nosuid,nodev,noexec,noatime shared:17 - fuse /dev/fuse rw,user_id=0,group_id=0",
+};
+
+// Present in every namespace of a rooted device
+static const char* const rooted_mounts[] = {
+    "/ /debug_ramdisk rw,relatime shared:40 - tmpfs magisk rw,seclabel,mode=755",
+    "/.magisk/mirror/system_root /dev/magisk/mirror ro,relatime - ext4 /dev/block/dm-0 ro,seclabel",
+    "/ /vendor/overlay ro,relatime - overlay overlay ro,lowerdir=/data/adb/modules/.core/vendor/overlay",
+};
+
+// Module mounts the denylist unmounts from the app's namespace, only visible in init's
+static const char* const denied_mounts[] = {
+    "/adb/modules/hosts/system/etc/hosts /system/etc/hosts rw,relatime - f2fs /dev/block/dm-5 rw,seclabel",
+    "/adb/modules/zygisk_lsposed/system/framework /system/framework/oat rw,relatime - f2fs /dev/block/dm-5 rw,seclabel",
+    "/adb/modules/playintegrityfix/system/product/app /product/app/Gms rw,relatime - f2fs /dev/block/dm-5 rw,seclabel",
+    "/adb/modules/shamiko/system/bin /system/bin/shamiko rw,relatime - f2fs /dev/block/dm-5 rw,seclabel",
+};
+
+// Per-app views zygote sets up in the app's namespace only, on every device
+static const char* const app_mounts[] = {
+    "/data/user/0 /data/user/0 rw,nosuid,nodev,noatime - f2fs /dev/block/dm-5 rw,seclabel",
+    "/data/data /data/data rw,nosuid,nodev,noatime - f2fs /dev/block/dm-5 rw,seclabel",
+    "/media/0/Android/data /storage/emulated/0/Android/data rw,nosuid,nodev,noexec,noatime - fuse /dev/fuse rw,user_id=0",
+    "/ /apex/com.android.art ro,nodev,noatime - ext4 /dev/block/loop3 ro,seclabel",
+};
+
+#define COUNT_OF(a) (sizeof(a) / sizeof((a)[0]))
+
+static int write_mountinfo(const char* root, const char* rel, int lines, int rooted, int with_denied) {
+    FILE* f = create_file(root, rel);
+    if (!f) return -1;
+    int id = 20;
+    int written = 0;
+    for (size_t i = 0; i < COUNT_OF(base_mounts) && written < lines; i++, written++) {
+        fprintf(f, "%d %d 253:%zu %s\n", id, i == 0 ? 1 : 20, i, base_mounts[i]);
+        id++;
+    }
+    for (size_t i = 0; !with_denied && i < COUNT_OF(app_mounts); i++, written++) {
+        fprintf(f, "%d 20 0:%zu %s\n", id++, 80 + i, app_mounts[i]);
+    }
+    if (rooted) {
+        for (size_t i = 0; i < COUNT_OF(rooted_mounts); i++, written++) {
+            fprintf(f, "%d 20 0:%zu %s\n", id++, 40 + i, rooted_mounts[i]);
+        }
+        for (size_t i = 0; with_denied && i < COUNT_OF(denied_mounts); i++, written++) {
+            fprintf(f, "%d 26 253:5 %s\n", id++, denied_mounts[i]);
+        }
+    }
+    // The bulk of a real table: APEX loop mounts, their bind mounts, and per-user storage views
+    for (int i = 0; written < lines; i++, written++) {
+        switch (i % 3) {
+        case 0:
+            fprintf(f, "%d 34 7:%d / /apex/com.android.module%d@34%04d ro,nodev,noatime shared:%d - ext4 /dev/block/loop%d ro,seclabel\n",
+                    id, i, i / 3, i, 100 + i, i);
+            break;
+        case 1:
+            fprintf(f, "%d 34 7:%d / /apex/com.android.module%d ro,nodev,noatime shared:%d - ext4 /dev/block/loop%d ro,seclabel\n",
+                    id, i - 1, i / 3, 100 + i, i - 1);
+            break;
+        default:
+            fprintf(f, "%d 33 0:%d /user/%d /mnt/user/%d/emulated rw,nosuid,nodev,noexec,noatime master:17 - fuse /dev/fuse rw,user_id=0\n",
+                    id, 60 + i, i / 3, i / 3);
+            break;
+        }
+        id++;
+    }
+    return fclose(f);
+}
+
+// ----- Process table -----
+
+static int write_process(const char* root, int pid, const char* comm, const char* cmdline) {
+    char rel[128];
+    snprintf(rel, sizeof(rel), "/proc/%d/comm", pid);
+    if (write_file(root, rel, "%.15s\n", comm) != 0) return -1;
+    snprintf(rel, sizeof(rel), "/proc/%d/cmdline", pid);
+    FILE* f = create_file(root, rel);
+    if (!f) return -1;
+    // Arguments are NUL-separated; kernel threads have an empty cmdline
+    for (const char* p = cmdline; *p; p++) fputc(*p == ' ' ? '\0' : *p, f);
+    if (cmdline[0]) fputc('\0', f);
+    return fclose(f);
+}
+
+static const char* const daemons[] = {
+    "/system/bin/logd", "/system/bin/servicemanager", "/system/bin/hwservicemanager",
+    "/system/bin/vold", "/system/bin/surfaceflinger", "/system/bin/netd",
+    "/system/bin/installd", "/system/bin/keystore2", "/system/bin/lmkd",
+    "/system/bin/statsd", "/system/bin/storaged", "/system/bin/audioserver",
+    "/system/bin/cameraserver", "/system/bin/mediaserver", "/vendor/bin/hw/android.hardware.health-service",
+};
+
+static int write_processes(const char* root, const fixture_spec* spec) {
+    // Targets of scan_processes, each with a full-size maps file
+    if (write_process(root, 1, "init", "/system/bin/init second_stage") != 0) return -1;
+    if (write_maps(root, "/proc/1/maps", spec->maps_lines, 0) != 0) return -1;
+    if (write_process(root, 580, "main", "zygote64") != 0) return -1;
+    if (write_maps(root, "/proc/580/maps", spec->maps_lines, spec->rooted) != 0) return -1;
+    if (write_process(root, 581, "main", "zygote") != 0) return -1;
+    if (write_maps(root, "/proc/581/maps", spec->maps_lines, 0) != 0) return -1;
+    if (write_process(root, 1100, "system_server", "system_server") != 0) return -1;
+    if (write_maps(root, "/proc/1100/maps", spec->maps_lines, 0) != 0) return -1;
+    if (spec->rooted && write_process(root, 712, "magiskd", "/data/adb/magisk/magiskd") != 0) return -1;
+
+    // Kernel threads, native daemons, then apps
+    char comm[64], cmdline[128];
+    for (int i = 0; i < spec->processes; i++) {
+        int pid;
+        if (i < spec->processes / 4) {
+            pid = 2 + i;
+            snprintf(comm, sizeof(comm), i % 2 ? "kworker/%d:1" : "ksoftirqd/%d", i / 2);
+            cmdline[0] = '\0';
+        } else if (i < spec->processes / 4 + (int) COUNT_OF(daemons)) {
+            const char* daemon = daemons[i - spec->processes / 4];
+            pid = 300 + i;
+            snprintf(comm, sizeof(comm), "%s", strrchr(daemon, '/') + 1);
+            snprintf(cmdline, sizeof(cmdline), "%s", daemon);
+        } else {
+            pid = 2000 + i * 7;
+            snprintf(cmdline, sizeof(cmdline), "com.example.app%d", i);
+            // Apps get the last 15 characters of the package name as comm
+            size_t len = strlen(cmdline);
+            snprintf(comm, sizeof(comm), "%.15s", cmdline + (len > 15 ? len - 15 : 0));
+        }
+        if (write_process(root, pid, comm, cmdline) != 0) return -1;
+    }
+    return 0;
+}
+
+// ----- Mount namespaces -----
+
+// /proc/<pid>/ns/mnt is a link whose text names the namespace; stat follows it to a
+// per-namespace inode, here a file next to the link (hard-linked when shared)
+static int write_namespaces(const char* root, int rooted) {
+    char target[4096], link_path[4096], self_target[4096];
+    if (make_dir(root, "/proc/1/ns") != 0 || make_dir(root, "/proc/self/ns") != 0) return -1;
+
+    snprintf(target, sizeof(target), "%s/proc/1/ns/%s", root, NS_CLEAN);
+    if (write_file(root, "/proc/1/ns/" NS_CLEAN, "") != 0) return -1;
+    snprintf(link_path, sizeof(link_path), "%s/proc/1/ns/mnt", root);
+    if (symlink(NS_CLEAN, link_path) != 0) return -1;
+
+    const char* self_ns = rooted ? NS_DENIED : NS_CLEAN;
+    snprintf(self_target, sizeof(self_target), "%s/proc/self/ns/%s", root, self_ns);
+    if (rooted) {
+        if (write_file(root, "/proc/self/ns/" NS_DENIED, "") != 0) return -1;
+    } else if (link(target, self_target) != 0) {
+        return -1;
+    }
+    snprintf(link_path, sizeof(link_path), "%s/proc/self/ns/mnt", root);
+    return symlink(self_ns, link_path);
+}
+
+// ----- Everything else -----
+
+static int write_hosts(const char* root, const char* rel, int modified) {
+    FILE* f = create_file(root, rel);
+    if (!f) return -1;
+    fprintf(f, "127.0.0.1       localhost\n::1             ip6-localhost\n");
+    // An ad-blocking hosts module, ~48KB
+    for (int i = 0; modified && i < 1200; i++) {
+        fprintf(f, "0.0.0.0 ads%04d.tracker.example\n", i);
+    }
+    return fclose(f);
+}
+
+static int write_filesystems(const char* root, int rooted) {
+    static const char* const filesystems[] = {
+        "nodev\tsysfs", "nodev\ttmpfs", "nodev\tbdev", "nodev\tproc", "nodev\tcgroup",
+        "nodev\tcgroup2", "nodev\tdevtmpfs", "nodev\tdebugfs", "nodev\ttracefs",
+        "nodev\tsockfs", "nodev\tpipefs", "nodev\tselinuxfs", "nodev\tfuse",
+        "\text4", "\tf2fs", "\tvfat", "\terofs", "nodev\tincremental-fs",
+    };
+    FILE* f = create_file(root, "/proc/filesystems");
+    if (!f) return -1;
+    for (size_t i = 0; i < COUNT_OF(filesystems); i++) fprintf(f, "%s\n", filesystems[i]);
+    if (rooted) fprintf(f, "nodev\toverlay\n");
+    return fclose(f);
+}
+
+// Stand-in for /system/bin/logcat -d -v epoch: arguments are ignored, output is fixed
+static int write_logcat(const char* root, int rooted) {
+    char path[4096];
+    FILE* f = create_file(root, "/system/bin/logcat");
+    if (!f) return -1;
+    fprintf(f, "#!/bin/sh\ncat <<'LOG'\n");
+    for (int i = 0; i < 200; i++) {
+        fprintf(f, "  1718000%03d.%06d  1000  %4d I ActivityManager: Start proc %d:com.example.app%d/u0a%d\n",
+                i, i * 37 % 1000000, 1100 + i, 2000 + i, i, 100 + i);
+        if (rooted && i == 150) {
+            fprintf(f, "  1718000%03d.%06d     0   580 I zygisk64: [lsposed] module loaded\n", i, i * 37 % 1000000);
+        }
+    }
+    fprintf(f, "LOG\n");
+    if (fclose(f) != 0) return -1;
+    join(path, sizeof(path), root, "/system/bin/logcat");
+    return chmod(path, 0755);
+}
+
+static int write_sepolicy(const char* root) {
+    FILE* f = create_file(root, "/vendor/etc/selinux/vendor_sepolicy.cil");
+    if (!f) return -1;
+    for (int i = 0; i < 500; i++) {
+        fprintf(f, "(allow hal_vendor_%d_31_0 vendor_data_file_31_0 (dir (search)))\n", i);
+    }
+    fprintf(f, "(typeattributeset lineage_hal_vendor_31_0 (hal_lineage_health))\n");
+    return fclose(f);
+}
+
+static const char* const rooted_files[] = {
+    "/sbin/su", "/sbin/magisk", "/system/xbin/su", "/cache/magisk.log",
+    "/data/adb/magisk.db", "/data/adb/magisk/magiskd", "/data/adb/magisk/magiskinit",
+};
+
+static const char* const rooted_modules[] = {
+    "zygisk_lsposed", "shamiko", "playintegrityfix", "hosts",
+};
+
+static const char* const rooted_apps[] = {
+    "io.github.huskydg.magisk-Xq1==", "org.lsposed.manager-P2a==", "me.weishu.kernelsu-9kd==",
+};
+
+#define DATA_APP_DIRS 150
+
+int fixture_create(const fixture_spec* spec, char* root, size_t root_size) {
+    snprintf(root, root_size, "%s/native_bench.XXXXXX", getenv("TMPDIR") ? getenv("TMPDIR") : "/tmp");
+    if (!mkdtemp(root)) return -1;
+    const char* r = root;
+    int rooted = spec->rooted;
+    active_rooted = rooted;
+
+    if (write_maps(r, "/proc/self/maps", spec->maps_lines, rooted) != 0) return -1;
+    if (write_mountinfo(r, "/proc/self/mountinfo", spec->mounts, rooted, 0) != 0) return -1;
+    if (write_mountinfo(r, "/proc/1/mountinfo", spec->mounts, rooted, 1) != 0) return -1;
+    if (write_namespaces(r, rooted) != 0) return -1;
+    if (write_processes(r, spec) != 0) return -1;
+    if (write_filesystems(r, rooted) != 0) return -1;
+    if (write_file(r, "/proc/version", rooted
+            ? "Linux version 4.14.190-perf+ (builder@lineage) (gcc version 4.9.x 20150123 (prerelease)) #1 SMP PREEMPT\n"
+            : "Linux version 5.10.198-android13-4-00050-g2a5e5f1 (build-user@build-host) (Android (8508608) clang version 14.0.7) #1 SMP PREEMPT\n") != 0) return -1;
+    if (write_file(r, "/proc/sys/kernel/random/boot_id", "%s\n", rooted
+            ? "5b0c6f1e-2f43-4c55-9e4c-0b7d6c2a9f11" : "c1d2e3f4-a5b6-4788-99aa-bbccddeeff00") != 0) return -1;
+
+    if (write_hosts(r, "/system/etc/hosts", rooted) != 0) return -1;
+    if (write_hosts(r, "/etc/hosts", 0) != 0) return -1;
+    if (write_logcat(r, rooted) != 0) return -1;
+    if (make_dir(r, "/cache") != 0) return -1;
+    if (make_dir(r, "/system/priv-app/GoogleGmsCore") != 0) return -1;
+    for (int i = 0; i < DATA_APP_DIRS; i++) {
+        char rel[128];
+        snprintf(rel, sizeof(rel), "/data/app/com.example.app%d-%d==", i, i * 31 % 97);
+        if (make_dir(r, rel) != 0) return -1;
+    }
+
+    if (rooted) {
+        for (size_t i = 0; i < COUNT_OF(rooted_files); i++) {
+            if (write_file(r, rooted_files[i], "") != 0) return -1;
+        }
+        for (size_t i = 0; i < COUNT_OF(rooted_modules); i++) {
+            char rel[128];
+            snprintf(rel, sizeof(rel), "/data/adb/modules/%s/module.prop", rooted_modules[i]);
+            if (write_file(r, rel, "id=%s\n", rooted_modules[i]) != 0) return -1;
+        }
+        for (size_t i = 0; i < COUNT_OF(rooted_apps); i++) {
+            char rel[128];
+            snprintf(rel, sizeof(rel), "/data/app/%s", rooted_apps[i]);
+            if (make_dir(r, rel) != 0) return -1;
+        }
+        if (write_sepolicy(r) != 0) return -1;
+    }
+    return 0;
+}
+
+static int remove_entry(const char* path, const struct stat* st, int flag, struct FTW* ftw) {
+    return remove(path);
+}
+
+void fixture_destroy(const char* root) {
+    nftw(root, remove_entry, 16, FTW_DEPTH | FTW_PHYS);
+    active_rooted = -1;
+}
@@ -0,0 +1,25 @@
+#ifndef BENCH_FIXTURE_H
+#define BENCH_FIXTURE_H
+
+#include <stddef.h>
+
+// Synthetic device tree under a temp directory: /proc (self, init and a process table),
+// the su/Magisk paths, /data/adb/modules, /data/app, hosts, and a logcat stand-in.
+// Written with the bench_fs root unset, i.e. with the host paths as given.
+
+typedef struct {
+    int rooted;         // Magisk installed: su paths, modules, injected maps, hidden mounts
+    int maps_lines;     // lines of /proc/self/maps and of each target process's maps
+    int mounts;         // lines of /proc/self/mountinfo and /proc/1/mountinfo
+    int processes;      // /proc/<pid> entries besides init, zygote and system_server
+} fixture_spec;
+
+// Creates the tree and stores its path in root. Returns 0 on success.
+int fixture_create(const fixture_spec* spec, char* root, size_t root_size);
+// Removes the tree, call with the bench_fs root unset
+void fixture_destroy(const char* root);
+
+// System property of the active fixture, NULL if unset
+const char* fixture_property(const char* name);
+
+#endif
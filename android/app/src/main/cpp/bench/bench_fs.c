@@ -0,0 +1,253 @@
+#define _GNU_SOURCE
+#include <dirent.h>
+#include <fcntl.h>
+#include <limits.h>
+#include <poll.h>
+#include <sched.h>
+#include <stdarg.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <unistd.h>
+#include <sys/inotify.h>
+#include <sys/mman.h>
+#include <sys/stat.h>
+#include <sys/types.h>
+#include <sys/wait.h>
+
+#include "bench_fs.h"
+
+static char root[PATH_MAX];
+static size_t root_len;
+static bench_counters counters;
+
+void bench_fs_set_root(const char* dir) {
+    if (!dir) {
+        root[0] = '\0';
+        root_len = 0;
+        return;
+    }
+    snprintf(root, sizeof(root), "%s", dir);
+    root_len = strlen(root);
+}
+
+// Absolute paths move under the fixture root; /dev/null stays the host's (logcat's stderr)
+static const char* reroute(const char* path, char* buf) {
+    if (!root_len || !path || path[0] != '/' || strcmp(path, "/dev/null") == 0) return path;
+    if (snprintf(buf, PATH_MAX, "%s%s", root, path) >= PATH_MAX) return path;
+    return buf;
+}
+
+// ----- Real functions (resolved by the linker to the libc symbols) -----
+
+int __real_open(const char* path, int flags, ...);
+int __real_openat(int dirfd, const char* path, int flags, ...);
+FILE* __real_fopen(const char* path, const char* mode);
+DIR* __real_opendir(const char* path);
+int __real_stat(const char* path, struct stat* st);
+int __real_access(const char* path, int mode);
+ssize_t __real_readlink(const char* path, char* buf, size_t size);
+int __real_execv(const char* path, char* const argv[]);
+int __real_inotify_add_watch(int fd, const char* path, uint32_t mask);
+int __real_inotify_init(void);
+ssize_t __real_read(int fd, void* buf, size_t count);
+int __real_close(int fd);
+struct dirent* __real_readdir(DIR* dir);
+int __real_closedir(DIR* dir);
+long __real_syscall(long number, ...);
+int __real_clone(int (*fn)(void*), void* stack, int flags, void* arg, ...);
+pid_t __real_waitpid(pid_t pid, int* status, int options);
+int __real_pipe2(int fds[2], int flags);
+int __real_poll(struct pollfd* fds, nfds_t nfds, int timeout);
+int __real_kill(pid_t pid, int sig);
+int __real_dup2(int oldfd, int newfd);
+pid_t __real_getpid(void);
+void* __real_mmap(void* addr, size_t length, int prot, int flags, int fd, off_t offset);
+int __real_munmap(void* addr, size_t length);
+
+// ----- Path calls -----
+
+int __wrap_open(const char* path, int flags, ...) {
+    mode_t mode = 0;
+    if (flags & (O_CREAT | O_TMPFILE)) {
+        va_list ap;
+        va_start(ap, flags);
+        mode = va_arg(ap, int);
+        va_end(ap);
+    }
+    char buf[PATH_MAX];
+    counters.path++;
+    return __real_open(reroute(path, buf), flags, mode);
+}
+
+// Relative paths (openat on a /proc/<pid> fd) already point into the fixture
+int __wrap_openat(int dirfd, const char* path, int flags, ...) {
+    mode_t mode = 0;
+    if (flags & (O_CREAT | O_TMPFILE)) {
+        va_list ap;
+        va_start(ap, flags);
+        mode = va_arg(ap, int);
+        va_end(ap);
+    }
+    char buf[PATH_MAX];
+    counters.path++;
+    return __real_openat(dirfd, reroute(path, buf), flags, mode);
+}
+
+FILE* __wrap_fopen(const char* path, const char* mode) {
+    char buf[PATH_MAX];
+    counters.path++;
+    return __real_fopen(reroute(path, buf), mode);
+}
+
+DIR* __wrap_opendir(const char* path) {
+    char buf[PATH_MAX];
+    counters.path++;
+    return __real_opendir(reroute(path, buf));
+}
+
+int __wrap_stat(const char* path, struct stat* st) {
+    char buf[PATH_MAX];
+    counters.path++;
+    return __real_stat(reroute(path, buf), st);
+}
+
+int __wrap_access(const char* path, int mode) {
+    char buf[PATH_MAX];
+    counters.path++;
+    return __real_access(reroute(path, buf), mode);
+}
+
+ssize_t __wrap_readlink(const char* path, char* out, size_t size) {
+    char buf[PATH_MAX];
+    counters.path++;
+    return __real_readlink(reroute(path, buf), out, size);
+}
+
+// Runs in log_probe's vfork child, which shares the counters with the parent
+int __wrap_execv(const char* path, char* const argv[]) {
+    char buf[PATH_MAX];
+    counters.path++;
+    return __real_execv(reroute(path, buf), argv);
+}
+
+int __wrap_inotify_add_watch(int fd, const char* path, uint32_t mask) {
+    char buf[PATH_MAX];
+    counters.path++;
+    return __real_inotify_add_watch(fd, reroute(path, buf), mask);
+}
+
+// ----- I/O calls -----
+
+ssize_t __wrap_read(int fd, void* buf, size_t count) {
+    counters.io++;
+    return __real_read(fd, buf, count);
+}
+
+int __wrap_close(int fd) {
+    counters.io++;
+    return __real_close(fd);
+}
+
+struct dirent* __wrap_readdir(DIR* dir) {
+    counters.io++;
+    return __real_readdir(dir);
+}
+
+int __wrap_closedir(DIR* dir) {
+    counters.io++;
+    return __real_closedir(dir);
+}
+
+// Only proc_walker's getdents64 goes through syscall(); every argument is forwarded
+long __wrap_syscall(long number, long a1, long a2, long a3, long a4, long a5, long a6) {
+    counters.io++;
+    return __real_syscall(number, a1, a2, a3, a4, a5, a6);
+}
+
+// ----- Process calls -----
+
+int __wrap_clone(int (*fn)(void*), void* stack, int flags, void* arg, ...) {
+    va_list ap;
+    va_start(ap, arg);
+    pid_t* parent_tid = va_arg(ap, pid_t*);
+    void* tls = va_arg(ap, void*);
+    pid_t* child_tid = va_arg(ap, pid_t*);
+    va_end(ap);
+    counters.proc++;
+    return __real_clone(fn, stack, flags, arg, parent_tid, tls, child_tid);
+}
+
+pid_t __wrap_waitpid(pid_t pid, int* status, int options) {
+    counters.proc++;
+    return __real_waitpid(pid, status, options);
+}
+
+int __wrap_pipe2(int fds[2], int flags) {
+    counters.proc++;
+    return __real_pipe2(fds, flags);
+}
+
+int __wrap_poll(struct pollfd* fds, nfds_t nfds, int timeout) {
+    counters.proc++;
+    return __real_poll(fds, nfds, timeout);
+}
+
+int __wrap_kill(pid_t pid, int sig) {
+    counters.proc++;
+    return __real_kill(pid, sig);
+}
+
+int __wrap_dup2(int oldfd, int newfd) {
+    counters.proc++;
+    return __real_dup2(oldfd, newfd);
+}
+
+pid_t __wrap_getpid(void) {
+    counters.proc++;
+    return __real_getpid();
+}
+
+void* __wrap_mmap(void* addr, size_t length, int prot, int flags, int fd, off_t offset) {
+    counters.proc++;
+    return __real_mmap(addr, length, prot, flags, fd, offset);
+}
+
+int __wrap_munmap(void* addr, size_t length) {
+    counters.proc++;
+    return __real_munmap(addr, length);
+}
+
+int __wrap_inotify_init(void) {
+    counters.proc++;
+    return __real_inotify_init();
+}
+
+// ----- Counters -----
+
+// syscr of /proc/self/io, read with the real calls so the snapshot does not count itself
+static unsigned long kernel_read_count(void) {
+    int fd = __real_open("/proc/self/io", O_RDONLY | O_CLOEXEC);
+    if (fd < 0) return 0;
+    char buf[512];
+    ssize_t len = __real_read(fd, buf, sizeof(buf) - 1);
+    __real_close(fd);
+    if (len <= 0) return 0;
+    buf[len] = '\0';
+    const char* syscr = strstr(buf, "syscr:");
+    return syscr ? strtoul(syscr + 6, NULL, 10) : 0;
+}
+
+void bench_counters_snapshot(bench_counters* out) {
+    *out = counters;
+    out->kernel_reads = kernel_read_count();
+}
+
+void bench_counters_diff(const bench_counters* after, const bench_counters* before, bench_counters* out) {
+    out->path = after->path - before->path;
+    out->io = after->io - before->io;
+    out->proc = after->proc - before->proc;
+    // The snapshot's own read of /proc/self/io is counted once per pair
+    unsigned long reads = after->kernel_reads - before->kernel_reads;
+    out->kernel_reads = reads > 0 ? reads - 1 : 0;
+}
@@ -0,0 +1,23 @@
+#ifndef BENCH_FS_H
+#define BENCH_FS_H
+
+// Interposers for the libc calls the checks make, linked in with -Wl,--wrap (see
+// CMakeLists.txt). Absolute paths are resolved under the fixture root, so the checks
+// read the synthetic /proc and filesystem instead of the host's, and every call is
+// counted so each check can be reported in syscalls per run.
+
+typedef struct {
+    unsigned long path;          // open, openat, fopen, opendir, stat, access, readlink, execv, inotify_add_watch
+    unsigned long io;            // read, readdir, close, closedir, syscall (getdents64)
+    unsigned long proc;          // clone, waitpid, pipe2, poll, kill, dup2, getpid, mmap, munmap, inotify_init
+    unsigned long kernel_reads;  // read syscalls counted by the kernel, including the ones inside stdio
+} bench_counters;
+
+// NULL (the default) passes paths through unchanged, e.g. while the fixture is written
+void bench_fs_set_root(const char* root);
+
+void bench_counters_snapshot(bench_counters* out);
+// out = after - before
+void bench_counters_diff(const bench_counters* after, const bench_counters* before, bench_counters* out);
+
+#endif
@@ -0,0 +1,212 @@
+// Host benchmark for the native checks: every detection check and Magisk layer, the
+// /proc walk and the two aggregates, run against a synthetic device tree (bench_fixture.c)
+// with path resolution and syscall counting from bench_fs.c.
+//
+//   native_bench [--clean | --rooted] [--iterations N] [--maps N] [--mounts N] [--procs N]
+
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <time.h>
+
+#include "bench_fixture.h"
+#include "bench_fs.h"
+#include "log_probe.h"
+#include "native_scan.h"
+#include "proc_walker.h"
+#include "scan_result.h"
+
+typedef int (*bench_op)(const void* ctx);
+
+static int iterations = 200;
+
+static long long now_nanos(void) {
+    struct timespec ts;
+    clock_gettime(CLOCK_MONOTONIC, &ts);
+    return (long long) ts.tv_sec * 1000000000LL + ts.tv_nsec;
+}
+
+// One warm-up run (fills caches, the maps automaton and the logcat cursor), then the timed runs
+static void measure(const char* group, const char* name, bench_op op, const void* ctx) {
+    int result = op(ctx);
+    bench_counters before, after, used;
+    bench_counters_snapshot(&before);
+    long long start = now_nanos();
+    for (int i = 0; i < iterations; i++) {
+        result = op(ctx);
+    }
+    long long elapsed = now_nanos() - start;
+    bench_counters_snapshot(&after);
+    bench_counters_diff(&after, &before, &used);
+
+    double n = iterations;
+    printf("%-10s %-22s %12.0f %8.1f %8.1f %8.1f %8.1f %7d\n", group, name, elapsed / n,
+           used.path / n, used.io / n, used.proc / n, used.kernel_reads / n, result);
+}
+
+// ----- Operations -----
+
+static int op_detection_inputs(const void* ctx) {
+    detection_inputs in;
+    detection_inputs_load(&in, SCAN_TIERS_ALL);
+    int count = in.self_mounts.count;
+    detection_inputs_free(&in);
+    return count;
+}
+
+static int op_magisk_inputs(const void* ctx) {
+    magisk_inputs in;
+    magisk_inputs_load(&in, ctx, SCAN_TIERS_ALL);
+    int count = in.mounts.count;
+    magisk_inputs_free(&in);
+    return count;
+}
+
+typedef struct {
+    const detection_check* check;
+    const detection_inputs* inputs;
+} detection_ctx;
+
+static int op_detection_check(const void* ctx) {
+    const detection_ctx* c = ctx;
+    scan_result out;
+    scan_result_init(&out);
+    c->check->run(&out, c->inputs);
+    int count = out.count;
+    scan_result_free(&out);
+    return count;
+}
+
+typedef struct {
+    const magisk_layer* layer;
+    const magisk_inputs* inputs;
+} layer_ctx;
+
+static int op_magisk_layer(const void* ctx) {
+    const layer_ctx* c = ctx;
+    return c->layer->run(c->inputs);
+}
+
+static int op_scan_processes(const void* ctx) {
+    proc_findings findings;
+    scan_processes(&findings, PROC_DEFAULT_PID_BUDGET);
+    return (findings.su_pid != 0) | (findings.magisk_in_target_maps << 1);
+}
+
+static int op_run_all_checks(const void* ctx) {
+    scan_result out;
+    scan_result_init(&out);
+    run_all_checks_native(&out, SCAN_TIERS_ALL);
+    int count = out.count;
+    scan_result_free(&out);
+    return count;
+}
+
+// What a scan with cached BOOT and TTL results still runs
+static int op_run_volatile_checks(const void* ctx) {
+    scan_result out;
+    scan_result_init(&out);
+    run_all_checks_native(&out, SCAN_TIER_VOLATILE);
+    int count = out.count;
+    scan_result_free(&out);
+    return count;
+}
+
+static int op_is_magisk_detected_volatile(const void* ctx) {
+    return isMagiskDetected(ctx, SCAN_FLAG_DEEP | SCAN_TIER_VOLATILE);
+}
+
+static int op_is_magisk_detected(const void* ctx) {
+    return isMagiskDetected(ctx, SCAN_FLAG_DEEP | SCAN_TIERS_ALL);
+}
+
+// Without the deep layers, as the quick and standard scan profiles run it
+static int op_is_magisk_detected_shallow(const void* ctx) {
+    return isMagiskDetected(ctx, SCAN_TIERS_ALL);
+}
+
+// ----- Main -----
+
+static int parse_count(const char* value, const char* option) {
+    int n = value ? atoi(value) : 0;
+    if (n <= 0) {
+        fprintf(stderr, "%s needs a positive number\n", option);
+        exit(2);
+    }
+    return n;
+}
+
+int main(int argc, char** argv) {
+    fixture_spec spec = { .rooted = 0, .maps_lines = 2000, .mounts = 300, .processes = 400 };
+    for (int i = 1; i < argc; i++) {
+        const char* value = i + 1 < argc ? argv[i + 1] : NULL;
+        if (strcmp(argv[i], "--clean") == 0) {
+            spec.rooted = 0;
+        } else if (strcmp(argv[i], "--rooted") == 0) {
+            spec.rooted = 1;
+        } else if (strcmp(argv[i], "--iterations") == 0) {
+            iterations = parse_count(value, argv[i]);
+            i++;
+        } else if (strcmp(argv[i], "--maps") == 0) {
+            spec.maps_lines = parse_count(value, argv[i]);
+            i++;
+        } else if (strcmp(argv[i], "--mounts") == 0) {
+            spec.mounts = parse_count(value, argv[i]);
+            i++;
+        } else if (strcmp(argv[i], "--procs") == 0) {
+            spec.processes = parse_count(value, argv[i]);
+            i++;
+        } else {
+            fprintf(stderr, "usage: %s [--clean | --rooted] [--iterations N] [--maps N] [--mounts N] [--procs N]\n", argv[0]);
+            return 2;
+        }
+    }
+
+    char root[4096];
+    if (fixture_create(&spec, root, sizeof(root)) != 0) {
+        perror("fixture");
+        fixture_destroy(root);
+        return 1;
+    }
+    bench_fs_set_root(root);
+    log_probe_set_state_dir("/cache");
+
+    printf("%s device, %d maps lines, %d mounts, %d processes, %d iterations\n",
+           spec.rooted ? "rooted" : "clean", spec.maps_lines, spec.mounts, spec.processes, iterations);
+    printf("%-10s %-22s %12s %8s %8s %8s %8s %7s\n",
+           "group", "check", "ns/op", "path/op", "io/op", "proc/op", "kread/op", "result");
+
+    proc_findings processes;
+    scan_processes(&processes, PROC_DEFAULT_PID_BUDGET);
+
+    measure("inputs", "detectionInputs", op_detection_inputs, NULL);
+    measure("inputs", "magiskInputs", op_magisk_inputs, &processes);
+    measure("inputs", "scanProcesses", op_scan_processes, NULL);
+
+    // Inputs are loaded once, as run_all_checks_native / isMagiskDetected do per scan
+    detection_inputs detection;
+    detection_inputs_load(&detection, SCAN_TIERS_ALL);
+    for (size_t i = 0; i < detection_check_count; i++) {
+        detection_ctx ctx = { &detection_checks[i], &detection };
+        measure("detection", detection_checks[i].name, op_detection_check, &ctx);
+    }
+    detection_inputs_free(&detection);
+
+    magisk_inputs magisk;
+    magisk_inputs_load(&magisk, &processes, SCAN_TIERS_ALL);
+    for (size_t i = 0; i < magisk_layer_count; i++) {
+        layer_ctx ctx = { &magisk_layers[i], &magisk };
+        measure("magisk", magisk_layers[i].name, op_magisk_layer, &ctx);
+    }
+    magisk_inputs_free(&magisk);
+
+    measure("scan", "runAllChecksNative", op_run_all_checks, NULL);
+    measure("scan", "isMagiskDetected", op_is_magisk_detected, &processes);
+    measure("scan", "isMagiskDetectedShallow", op_is_magisk_detected_shallow, &processes);
+    measure("scan", "runVolatileChecks", op_run_volatile_checks, NULL);
+    measure("scan", "isMagiskDetectedVolatile", op_is_magisk_detected_volatile, &processes);
+
+    bench_fs_set_root(NULL);
+    fixture_destroy(root);
+    return 0;
+}
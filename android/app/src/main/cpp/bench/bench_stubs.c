@@ -0,0 +1,22 @@
+#include <stdarg.h>
+#include <stdio.h>
+
+#include <android/log.h>
+#include <sys/system_properties.h>
+
+#include "bench_fixture.h"
+
+// Formatted like liblog would, then dropped: the cost of the LOGD calls stays in the numbers
+int __android_log_print(int prio, const char* tag, const char* fmt, ...) {
+    char message[1024];
+    va_list ap;
+    va_start(ap, fmt);
+    int len = vsnprintf(message, sizeof(message), fmt, ap);
+    va_end(ap);
+    return len;
+}
+
+int __system_property_get(const char* name, char* value) {
+    const char* fixture_value = fixture_property(name);
+    return snprintf(value, PROP_VALUE_MAX, "%s", fixture_value ? fixture_value : "");
+}
@@ -0,0 +1,18 @@
+#ifndef BENCH_ANDROID_LOG_H
+#define BENCH_ANDROID_LOG_H
+
+// Host stand-in for <android/log.h>. Messages are formatted (the checks pay for their
+// logging as on a device) and dropped, see bench_stubs.c.
+
+enum {
+    ANDROID_LOG_VERBOSE = 2,
+    ANDROID_LOG_DEBUG,
+    ANDROID_LOG_INFO,
+    ANDROID_LOG_WARN,
+    ANDROID_LOG_ERROR
+};
+
+int __android_log_print(int prio, const char* tag, const char* fmt, ...)
+        __attribute__((format(printf, 3, 4)));
+
+#endif
@@ -0,0 +1,10 @@
+#ifndef BENCH_SYSTEM_PROPERTIES_H
+#define BENCH_SYSTEM_PROPERTIES_H
+
+// Host stand-in for bionic's property API; values come from the fixture (bench_fixture.c)
+
+#define PROP_VALUE_MAX 92
+
+int __system_property_get(const char* name, char* value);
+
+#endif
@@ -0,0 +1,111 @@
+#define _GNU_SOURCE
+#include <errno.h>
+#include <pthread.h>
+#include <sched.h>
+#include <signal.h>
+#include <string.h>
+#include <unistd.h>
+#include <sys/mman.h>
+#include <sys/syscall.h>
+#include <sys/time.h>
+#include <sys/wait.h>
+#include <android/log.h>
+
+#include "isolated_probe.h"
+#include "scan_context.h"
+
+#define LOG_TAG "IsolatedProbe"
+#define LOGD(...) __android_log_print(ANDROID_LOG_DEBUG, LOG_TAG, __VA_ARGS__)
+
+#define PROBE_STACK_SIZE (64 * 1024)
+
+typedef struct {
+    isolated_probe_fn fn;
+    void* arg;
+    long timeout_ms;    // 0 without a deadline
+    sigset_t caller_mask;
+} probe_call;
+
+// struct sigaction as rt_sigaction takes it on the Android ABIs
+typedef struct {
+    void* handler;
+    unsigned long flags;
+    void* restorer;
+    unsigned long mask[64 / (8 * sizeof(unsigned long))];
+} kernel_sigaction;
+
+// Sets every caught signal back to SIG_DFL, ignored ones stay ignored (as posix_spawn
+// does). Raw syscalls: the child shares the parent's memory, and libc's sigaction in an
+// app goes through ART's libsigchain, whose handler table the child must not touch.
+static void reset_signal_handlers(void) {
+    for (int sig = 1; sig <= 64; sig++) {
+        kernel_sigaction action;
+        if (syscall(SYS_rt_sigaction, sig, NULL, &action, sizeof(action.mask)) != 0) continue;
+        if (action.handler == (void*) SIG_DFL || action.handler == (void*) SIG_IGN) continue;
+        memset(&action, 0, sizeof(action));
+        syscall(SYS_rt_sigaction, sig, &action, NULL, sizeof(action.mask));
+    }
+}
+
+static int probe_entry(void* ctx) {
+    probe_call* call = ctx;
+    // Signals stay blocked until no handler of the parent is left to run on this
+    // child's stack, in its memory
+    reset_signal_handlers();
+    sigset_t mask = call->caller_mask;
+    if (call->timeout_ms > 0) {
+        // The child has its own timers: SIGALRM at the deadline terminates it, the
+        // suspended parent then resumes
+        sigdelset(&mask, SIGALRM);
+    }
+    sigprocmask(SIG_SETMASK, &mask, NULL);
+    if (call->timeout_ms > 0) {
+        struct itimerval timer = {
+            .it_interval = { 0, 0 },
+            .it_value = { call->timeout_ms / 1000, (call->timeout_ms % 1000) * 1000 },
+        };
+        setitimer(ITIMER_REAL, &timer, NULL);
+    }
+    _exit(call->fn(call->arg) & 0xff);
+}
+
+int run_isolated_probe(isolated_probe_fn fn, void* arg) {
+    void* stack = mmap(NULL, PROBE_STACK_SIZE, PROT_READ | PROT_WRITE,
+                       MAP_PRIVATE | MAP_ANONYMOUS | MAP_STACK, -1, 0);
+    if (stack == MAP_FAILED) return -1;
+
+    long timeout_ms = scan_context_remaining_ms(-1);
+    if (timeout_ms == 0) {
+        munmap(stack, PROBE_STACK_SIZE);
+        scan_context_mark_incomplete();
+        return -1;
+    }
+    // caller_mask is filled by pthread_sigmask below
+    probe_call call = { .fn = fn, .arg = arg, .timeout_ms = timeout_ms > 0 ? timeout_ms : 0 };
+    // Nothing may be delivered to the child before it has reset the handlers it
+    // inherited; the parent's mask is restored once clone() returns
+    sigset_t all;
+    sigfillset(&all);
+    pthread_sigmask(SIG_BLOCK, &all, &call.caller_mask);
+    // Stack grows down on every Android ABI
+    pid_t pid = clone(probe_entry, (char*) stack + PROBE_STACK_SIZE,
+                      CLONE_VM | CLONE_VFORK | SIGCHLD, &call);
+    pthread_sigmask(SIG_SETMASK, &call.caller_mask, NULL);
+    int result = -1;
+    if (pid < 0) {
+        LOGD("clone() failed: %s", strerror(errno));
+    } else {
+        scan_context_count_spawn();
+        int status = 0;
+        while (waitpid(pid, &status, 0) < 0 && errno == EINTR) {
+        }
+        if (WIFEXITED(status)) {
+            result = WEXITSTATUS(status);
+        } else if (WIFSIGNALED(status) && WTERMSIG(status) == SIGALRM) {
+            LOGD("Probe killed at the scan deadline");
+            scan_context_mark_incomplete();
+        }
+    }
+    munmap(stack, PROBE_STACK_SIZE);
+    return result;
+}
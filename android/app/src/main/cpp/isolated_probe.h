@@ -0,0 +1,16 @@
+#ifndef ISOLATED_PROBE_H
+#define ISOLATED_PROBE_H
+
+// Runs a probe in a child process without fork(). The child is created with
+// clone(CLONE_VM | CLONE_VFORK): it borrows the caller's address space (no page
+// table copy, no copy-on-write faults on the ART/Hermes heaps) and the caller is
+// suspended until it exits. The probe therefore must only make plain syscalls -
+// no malloc, no locks, no logging - and report through its return value.
+typedef int (*isolated_probe_fn)(void* arg);
+
+// Exit status of the probe (0-255), or -1 if the child could not be started or was
+// stopped at the deadline. A probe still running at the scan's deadline (scan_context.h)
+// is killed, and none is started once the deadline has passed.
+int run_isolated_probe(isolated_probe_fn fn, void* arg);
+
+#endif
@@ -0,0 +1,248 @@
+#define _GNU_SOURCE
+#include <errno.h>
+#include <fcntl.h>
+#include <poll.h>
+#include <pthread.h>
+#include <signal.h>
+#include <stdatomic.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <time.h>
+#include <unistd.h>
+#include <sys/wait.h>
+#include <android/log.h>
+
+#include "log_probe.h"
+#include "scan_context.h"
+
+#define LOG_TAG "LogProbe"
+#define LOGD(...) __android_log_print(ANDROID_LOG_DEBUG, LOG_TAG, __VA_ARGS__)
+
+#define CURSOR_FILE "logcat_cursor"
+#define CURSOR_LEN 32
+#define BOOT_ID_LEN 40
+
+// Guards everything below
+static pthread_mutex_t state_lock = PTHREAD_MUTEX_INITIALIZER;
+static char state_path[512];
+static int state_loaded;
+static char boot_id[BOOT_ID_LEN];
+// "seconds.micros" of the newest entry read, as printed by logcat -v epoch
+static char cursor[CURSOR_LEN];
+static int matched;
+// matched as of the last unlock, for scans that find the lock busy
+static atomic_int published;
+
+void log_probe_set_state_dir(const char* dir) {
+    pthread_mutex_lock(&state_lock);
+    snprintf(state_path, sizeof(state_path), "%s/%s", dir, CURSOR_FILE);
+    state_loaded = 0;
+    pthread_mutex_unlock(&state_lock);
+}
+
+static void read_boot_id(char* out) {
+    out[0] = '\0';
+    int fd = open("/proc/sys/kernel/random/boot_id", O_RDONLY | O_CLOEXEC);
+    if (fd < 0) return;
+    ssize_t len = read(fd, out, BOOT_ID_LEN - 1);
+    close(fd);
+    if (len < 0) len = 0;
+    out[len] = '\0';
+    char* nl = strchr(out, '\n');
+    if (nl) *nl = '\0';
+}
+
+// State file: "<boot_id> <cursor> <matched>"; a cursor from another boot is discarded
+static void load_state(void) {
+    state_loaded = 1;
+    read_boot_id(boot_id);
+    cursor[0] = '\0';
+    matched = 0;
+    if (!state_path[0]) return;
+
+    FILE* f = fopen(state_path, "re");
+    if (!f) return;
+    char saved_boot[BOOT_ID_LEN], saved_cursor[CURSOR_LEN];
+    int saved_matched;
+    if (fscanf(f, "%39s %31s %d", saved_boot, saved_cursor, &saved_matched) == 3 &&
+        strcmp(saved_boot, boot_id) == 0) {
+        strcpy(cursor, saved_cursor);
+        matched = saved_matched;
+    }
+    fclose(f);
+}
+
+static void save_state(void) {
+    if (!state_path[0] || !boot_id[0]) return;
+    char tmp[sizeof(state_path) + 4];
+    snprintf(tmp, sizeof(tmp), "%s.tmp", state_path);
+    FILE* f = fopen(tmp, "we");
+    if (!f) return;
+    fprintf(f, "%s %s %d\n", boot_id, cursor[0] ? cursor : "-", matched);
+    if (fclose(f) == 0) rename(tmp, state_path);
+}
+
+static long elapsed_millis(const struct timespec* start) {
+    struct timespec now;
+    clock_gettime(CLOCK_MONOTONIC, &now);
+    return (now.tv_sec - start->tv_sec) * 1000 + (now.tv_nsec - start->tv_nsec) / 1000000;
+}
+
+static pid_t spawn_logcat(int* out_fd) {
+    char since[CURSOR_LEN];
+    const char* argv[10];
+    int argc = 0;
+    argv[argc++] = "logcat";
+    argv[argc++] = "-d";
+    argv[argc++] = "-v";
+    argv[argc++] = "epoch";
+    if (cursor[0] && cursor[0] != '-') {
+        // -T prints entries at or after the time, the newest one is skipped when read back
+        strcpy(since, cursor);
+        argv[argc++] = "-T";
+        argv[argc++] = since;
+    } else {
+        argv[argc++] = "-t";
+        argv[argc++] = LOG_PROBE_FIRST_LINES;
+    }
+    argv[argc] = NULL;
+
+    // Both ends close-on-exec from the start, so a fork elsewhere in the process cannot
+    // inherit them; dup2 hands the write end to the child as stdout without the flag
+    int fds[2];
+    if (pipe2(fds, O_CLOEXEC) != 0) return -1;
+    int devnull = open("/dev/null", O_WRONLY | O_CLOEXEC);
+
+    // vfork: no page table copy, the child only dup2s and execs
+    pid_t pid = vfork();
+    if (pid == 0) {
+        dup2(fds[1], STDOUT_FILENO);
+        if (devnull >= 0) dup2(devnull, STDERR_FILENO);
+        execv("/system/bin/logcat", (char* const*) argv);
+        _exit(127);
+    }
+    close(fds[1]);
+    if (devnull >= 0) close(devnull);
+    if (pid < 0) {
+        close(fds[0]);
+        return -1;
+    }
+    scan_context_count_spawn();
+    fcntl(fds[0], F_SETFL, O_NONBLOCK);
+    *out_fd = fds[0];
+    return pid;
+}
+
+// Leading "  seconds.micros" of an epoch-format line, copied into ts
+static int line_timestamp(const char* line, char* ts) {
+    while (*line == ' ') line++;
+    int len = 0;
+    while ((line[len] >= '0' && line[len] <= '9') || line[len] == '.') {
+        if (len == CURSOR_LEN - 1) return 0;
+        len++;
+    }
+    if (len == 0) return 0;
+    memcpy(ts, line, len);
+    ts[len] = '\0';
+    return 1;
+}
+
+static int match_line(const char* line, const char* const* signatures, int count) {
+    for (int i = 0; i < count; i++) {
+        if (strstr(line, signatures[i])) return 1;
+    }
+    return 0;
+}
+
+static int unlock_state(int result) {
+    atomic_store(&published, result);
+    pthread_mutex_unlock(&state_lock);
+    return result;
+}
+
+int log_probe_find(const char* const* signatures, int count) {
+    if (pthread_mutex_trylock(&state_lock) != 0) {
+        // Another scan is reading the log. A match holds for the rest of the boot,
+        // without one the answer is unknown until that read ends.
+        int known = atomic_load(&published);
+        if (!known) scan_context_mark_incomplete();
+        return known;
+    }
+    if (!state_loaded) load_state();
+    if (matched) {
+        return unlock_state(1);
+    }
+    // The read budget also ends at the scan's deadline
+    long budget = scan_context_remaining_ms(LOG_PROBE_MAX_MILLIS);
+    if (budget > LOG_PROBE_MAX_MILLIS) budget = LOG_PROBE_MAX_MILLIS;
+    if (budget <= 0) {
+        scan_context_mark_incomplete();
+        return unlock_state(0);
+    }
+
+    int fd;
+    pid_t pid = spawn_logcat(&fd);
+    if (pid < 0) {
+        return unlock_state(0);
+    }
+
+    struct timespec start;
+    clock_gettime(CLOCK_MONOTONIC, &start);
+    char buffer[8192];
+    size_t used = 0, total = 0;
+    int finished = 0;
+    char ts[CURSOR_LEN];
+
+    while (!matched) {
+        long remaining = budget - elapsed_millis(&start);
+        if (remaining <= 0 || total >= LOG_PROBE_MAX_BYTES) break;
+
+        struct pollfd pfd = { .fd = fd, .events = POLLIN };
+        int ready = poll(&pfd, 1, (int) remaining);
+        if (ready < 0 && errno == EINTR) continue;
+        if (ready <= 0) break;
+
+        ssize_t n = read(fd, buffer + used, sizeof(buffer) - used - 1);
+        if (n < 0 && (errno == EAGAIN || errno == EINTR)) continue;
+        if (n <= 0) {
+            finished = 1;
+            break;
+        }
+        used += n;
+        total += n;
+        buffer[used] = '\0';
+
+        char* line = buffer;
+        char* nl;
+        while ((nl = strchr(line, '\n'))) {
+            *nl = '\0';
+            if (line_timestamp(line, ts)) strcpy(cursor, ts);
+            if (match_line(line, signatures, count)) {
+                LOGD("Log signature: %s", line);
+                matched = 1;
+                break;
+            }
+            line = nl + 1;
+        }
+        // Keep the partial last line; a line longer than the buffer is dropped
+        used = matched ? 0 : (size_t)(buffer + used - line);
+        if (used == sizeof(buffer) - 1) used = 0;
+        memmove(buffer, line, used);
+    }
+
+    if (!finished) {
+        // Stopped by the scan's deadline rather than the probe's own budget
+        if (!matched && budget < LOG_PROBE_MAX_MILLIS && elapsed_millis(&start) >= budget) {
+            scan_context_mark_incomplete();
+        }
+        kill(pid, SIGKILL);
+        LOGD("Log scan stopped after %zu bytes, %ld ms", total, elapsed_millis(&start));
+    }
+    close(fd);
+    while (waitpid(pid, NULL, 0) < 0 && errno == EINTR) {
+    }
+
+    save_state();
+    return unlock_state(matched);
+}
@@ -0,0 +1,20 @@
+#ifndef LOG_PROBE_H
+#define LOG_PROBE_H
+
+// Incremental logcat scan. Only entries newer than the persisted cursor are read,
+// logcat is exec'd directly (no shell, no grep) and killed once the byte or time
+// budget is spent, and lines are matched in-process. A match stays reported until
+// the next reboot, like the full-buffer scan it replaces.
+
+#define LOG_PROBE_MAX_BYTES   (256 * 1024)
+#define LOG_PROBE_MAX_MILLIS  500
+// Lines read on the first scan of a boot, when there is no cursor yet
+#define LOG_PROBE_FIRST_LINES "2000"
+
+// Directory for the cursor file; without it the cursor only lives in memory
+void log_probe_set_state_dir(const char* dir);
+
+// 1 if any signature was seen in the log since boot, 0 otherwise
+int log_probe_find(const char* const* signatures, int count);
+
+#endif
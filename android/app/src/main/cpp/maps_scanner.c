@@ -0,0 +1,155 @@
+#include <pthread.h>
+#include <stdlib.h>
+#include <string.h>
+#include <unistd.h>
+#include <fcntl.h>
+
+#include "maps_scanner.h"
+
+#define READ_BUFFER 65536
+#define ALPHABET 256
+
+static const char* const signatures[MAPS_SIG_COUNT] = {
+    [MAPS_SIG_RWX] = "rwx",
+    [MAPS_SIG_ANON] = "anon",
+    [MAPS_SIG_ZYGISK] = "zygisk",
+    [MAPS_SIG_KSU] = "ksu",
+    [MAPS_SIG_MAGISK] = "magisk",
+    [MAPS_SIG_SHARED_LIB] = ".so",
+    [MAPS_SIG_DATA_ADB] = "/data/adb",
+    [MAPS_SIG_MAGISK_DIR] = "/magisk",
+    [MAPS_SIG_LSPOSED] = "lsposed",
+    [MAPS_SIG_LIBSU] = "libsu",
+};
+
+// Aho-Corasick automaton compiled to a full DFA: one table lookup per input byte
+typedef struct {
+    int32_t* next;      // [state * ALPHABET + byte] -> state
+    uint32_t* output;   // signatures matched on entering a state
+    int states;
+} ac_automaton;
+
+static ac_automaton automaton;
+static pthread_once_t automaton_once = PTHREAD_ONCE_INIT;
+
+static void build_automaton(void) {
+    int max_states = 1;
+    for (int i = 0; i < MAPS_SIG_COUNT; i++) max_states += (int) strlen(signatures[i]);
+
+    int32_t* next = malloc(sizeof(int32_t) * ALPHABET * max_states);
+    uint32_t* output = calloc(max_states, sizeof(uint32_t));
+    int32_t* fail = calloc(max_states, sizeof(int32_t));
+    int32_t* queue = malloc(sizeof(int32_t) * max_states);
+    if (!next || !output || !fail || !queue) {
+        free(next); free(output); free(fail); free(queue);
+        return;
+    }
+    memset(next, 0xff, sizeof(int32_t) * ALPHABET * max_states);
+
+    // Trie
+    int states = 1;
+    for (int i = 0; i < MAPS_SIG_COUNT; i++) {
+        int s = 0;
+        for (const unsigned char* p = (const unsigned char*) signatures[i]; *p; p++) {
+            if (next[s * ALPHABET + *p] < 0) next[s * ALPHABET + *p] = states++;
+            s = next[s * ALPHABET + *p];
+        }
+        output[s] |= MAPS_BIT(i);
+    }
+
+    // Breadth-first failure links, folded into the transition table
+    int head = 0, tail = 0;
+    for (int c = 0; c < ALPHABET; c++) {
+        int s = next[c];
+        if (s < 0) {
+            next[c] = 0;
+        } else {
+            fail[s] = 0;
+            queue[tail++] = s;
+        }
+    }
+    while (head < tail) {
+        int r = queue[head++];
+        output[r] |= output[fail[r]];
+        for (int c = 0; c < ALPHABET; c++) {
+            int s = next[r * ALPHABET + c];
+            if (s < 0) {
+                next[r * ALPHABET + c] = next[fail[r] * ALPHABET + c];
+            } else {
+                fail[s] = next[fail[r] * ALPHABET + c];
+                queue[tail++] = s;
+            }
+        }
+    }
+
+    free(fail);
+    free(queue);
+    automaton.next = next;
+    automaton.output = output;
+    automaton.states = states;
+}
+
+static uint32_t match_line(const char* line, size_t len) {
+    const int32_t* next = automaton.next;
+    const uint32_t* output = automaton.output;
+    uint32_t matches = 0;
+    int32_t s = 0;
+    for (size_t i = 0; i < len; i++) {
+        s = next[s * ALPHABET + (unsigned char) line[i]];
+        matches |= output[s];
+    }
+    return matches;
+}
+
+int maps_scan_file(const char* path, maps_line_cb cb, void* ctx) {
+    int fd = open(path, O_RDONLY | O_CLOEXEC);
+    if (fd < 0) return -1;
+    int result = maps_scan_fd(fd, cb, ctx);
+    close(fd);
+    return result;
+}
+
+int maps_scan_fd(int fd, maps_line_cb cb, void* ctx) {
+    pthread_once(&automaton_once, build_automaton);
+    if (!automaton.next) return -1;
+
+    char* buf = malloc(READ_BUFFER);
+    if (!buf) return -1;
+
+    int stopped = 0;
+    size_t filled = 0;
+    int eof = 0;
+    while (!stopped && (!eof || filled > 0)) {
+        if (!eof && filled < READ_BUFFER - 1) {
+            ssize_t n = read(fd, buf + filled, READ_BUFFER - 1 - filled);
+            if (n <= 0) eof = 1;
+            else filled += (size_t) n;
+        }
+
+        size_t start = 0;
+        while (!stopped) {
+            char* nl = memchr(buf + start, '\n', filled - start);
+            size_t end;
+            if (nl) {
+                end = (size_t) (nl - buf);
+            } else if (eof || filled == READ_BUFFER - 1) {
+                // Last line without newline, or a line longer than the buffer
+                if (start == filled) break;
+                end = filled;
+            } else {
+                break;
+            }
+            buf[end] = '\0';
+            uint32_t matches = match_line(buf + start, end - start);
+            if (matches && cb(buf + start, end - start, matches, ctx)) stopped = 1;
+            start = end < filled ? end + 1 : end;
+        }
+
+        // Keep the partial line for the next read
+        memmove(buf, buf + start, filled - start);
+        filled -= start;
+    }
+
+    free(buf);
+    return stopped ? 1 : 0;
+}
@@ -0,0 +1,34 @@
+#ifndef MAPS_SCANNER_H
+#define MAPS_SCANNER_H
+
+#include <stddef.h>
+#include <stdint.h>
+
+// Every signature any check looks for in a maps file, matched together in one pass
+typedef enum {
+    MAPS_SIG_RWX,           // "rwx"
+    MAPS_SIG_ANON,          // "anon" (also covers "[anon]")
+    MAPS_SIG_ZYGISK,        // "zygisk"
+    MAPS_SIG_KSU,           // "ksu"
+    MAPS_SIG_MAGISK,        // "magisk"
+    MAPS_SIG_SHARED_LIB,    // ".so"
+    MAPS_SIG_DATA_ADB,      // "/data/adb"
+    MAPS_SIG_MAGISK_DIR,    // "/magisk"
+    MAPS_SIG_LSPOSED,       // "lsposed"
+    MAPS_SIG_LIBSU,         // "libsu"
+    MAPS_SIG_COUNT
+} maps_signature;
+
+#define MAPS_BIT(sig) (1u << (sig))
+
+// Called for every line that matched at least one signature. line is NUL-terminated
+// without the trailing newline. Return non-zero to stop the scan.
+typedef int (*maps_line_cb)(const char* line, size_t len, uint32_t matches, void* ctx);
+
+// Scans a maps file ("/proc/self/maps", "/proc/123/maps"). Returns -1 if it cannot be opened,
+// 1 if the callback stopped the scan, 0 otherwise.
+int maps_scan_file(const char* path, maps_line_cb cb, void* ctx);
+// Same on an already open maps file (e.g. openat on a /proc/<pid> directory); fd stays open
+int maps_scan_fd(int fd, maps_line_cb cb, void* ctx);
+
+#endif
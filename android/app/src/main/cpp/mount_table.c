@@ -0,0 +1,147 @@
+#include <stdlib.h>
+#include <string.h>
+#include <stdio.h>
+#include <unistd.h>
+#include <fcntl.h>
+#include <sys/stat.h>
+
+#include "mount_table.h"
+
+#define INITIAL_BUFFER 16384
+#define INITIAL_ENTRIES 128
+
+// /proc files report st_size 0, so read until EOF into a growing buffer
+static char* read_whole_file(const char* path, size_t* out_len) {
+    int fd = open(path, O_RDONLY | O_CLOEXEC);
+    if (fd < 0) return NULL;
+
+    size_t cap = INITIAL_BUFFER, len = 0;
+    char* buf = malloc(cap);
+    while (buf) {
+        if (len + 1 >= cap) {
+            char* grown = realloc(buf, cap * 2);
+            if (!grown) { free(buf); buf = NULL; break; }
+            buf = grown;
+            cap *= 2;
+        }
+        ssize_t n = read(fd, buf + len, cap - len - 1);
+        if (n < 0) { free(buf); buf = NULL; break; }
+        if (n == 0) break;
+        len += (size_t) n;
+    }
+    close(fd);
+    if (buf) {
+        buf[len] = '\0';
+        *out_len = len;
+    }
+    return buf;
+}
+
+// Splits the next space-delimited field in place
+static char* next_field(char** cursor, char* end) {
+    char* p = *cursor;
+    while (p < end && *p == ' ') p++;
+    if (p >= end) return NULL;
+    char* start = p;
+    while (p < end && *p != ' ') p++;
+    if (p < end) *p++ = '\0';
+    *cursor = p;
+    return start;
+}
+
+// mountinfo line: id parent major:minor root mount_point options [optional...] - fs_type source super_options
+static int parse_line(char* line, char* end, mount_entry* entry) {
+    char* cursor = line;
+    char* fields[6];
+    for (int i = 0; i < 6; i++) {
+        fields[i] = next_field(&cursor, end);
+        if (!fields[i]) return 0;
+    }
+    char* field;
+    while ((field = next_field(&cursor, end)) && strcmp(field, "-") != 0) {
+        // optional fields (shared:N, master:N, ...)
+    }
+    if (!field) return 0;
+
+    entry->root = fields[3];
+    entry->mount_point = fields[4];
+    entry->options = fields[5];
+    entry->fs_type = next_field(&cursor, end);
+    entry->source = next_field(&cursor, end);
+    entry->super_options = next_field(&cursor, end);
+    if (!entry->fs_type) return 0;
+    if (!entry->source) entry->source = "";
+    if (!entry->super_options) entry->super_options = "";
+    return 1;
+}
+
+int mount_table_load(mount_table* table, const char* pid) {
+    memset(table, 0, sizeof(*table));
+
+    char path[64];
+    snprintf(path, sizeof(path), "/proc/%s/ns/mnt", pid);
+    struct stat st;
+    if (stat(path, &st) == 0) table->mnt_ns = st.st_ino;
+
+    snprintf(path, sizeof(path), "/proc/%s/mountinfo", pid);
+    size_t len = 0;
+    table->data = read_whole_file(path, &len);
+    if (!table->data) return -1;
+
+    int capacity = INITIAL_ENTRIES;
+    table->entries = malloc(sizeof(mount_entry) * capacity);
+    if (!table->entries) {
+        mount_table_free(table);
+        return -1;
+    }
+
+    char* line = table->data;
+    char* data_end = table->data + len;
+    while (line < data_end) {
+        char* nl = memchr(line, '\n', data_end - line);
+        char* end = nl ? nl : data_end;
+        *end = '\0';
+        if (table->count == capacity) {
+            mount_entry* grown = realloc(table->entries, sizeof(mount_entry) * capacity * 2);
+            if (!grown) break;
+            table->entries = grown;
+            capacity *= 2;
+        }
+        if (parse_line(line, end, &table->entries[table->count])) {
+            table->count++;
+        }
+        line = end + 1;
+    }
+    return 0;
+}
+
+void mount_table_free(mount_table* table) {
+    free(table->data);
+    free(table->entries);
+    memset(table, 0, sizeof(*table));
+}
+
+int mount_entry_contains(const mount_entry* entry, const char* needle) {
+    return strstr(entry->source, needle) ||
+           strstr(entry->mount_point, needle) ||
+           strstr(entry->root, needle) ||
+           strstr(entry->fs_type, needle) ||
+           strstr(entry->options, needle) ||
+           strstr(entry->super_options, needle);
+}
+
+static int option_list_has(const char* list, const char* option) {
+    size_t len = strlen(option);
+    const char* p = list;
+    while ((p = strstr(p, option)) != NULL) {
+        int starts = (p == list || p[-1] == ',');
+        int ends = (p[len] == '\0' || p[len] == ',');
+        if (starts && ends) return 1;
+        p += len;
+    }
+    return 0;
+}
+
+int mount_entry_has_option(const mount_entry* entry, const char* option) {
+    return option_list_has(entry->options, option) || option_list_has(entry->super_options, option);
+}
@@ -0,0 +1,33 @@
+#ifndef MOUNT_TABLE_H
+#define MOUNT_TABLE_H
+
+#include <sys/types.h>
+
+// One row of /proc/<pid>/mountinfo. All strings point into mount_table.data.
+typedef struct {
+    const char* root;
+    const char* mount_point;
+    const char* options;
+    const char* fs_type;
+    const char* source;
+    const char* super_options;
+} mount_entry;
+
+// Snapshot of a process's mount table, read once and queried by every check of a scan
+typedef struct {
+    char* data;
+    mount_entry* entries;
+    int count;
+    ino_t mnt_ns;       // inode of /proc/<pid>/ns/mnt, 0 if unreadable
+} mount_table;
+
+// Reads /proc/<pid>/mountinfo ("self", "1", ...). Returns 0 on success.
+int mount_table_load(mount_table* table, const char* pid);
+void mount_table_free(mount_table* table);
+
+// 1 if any field of the entry contains needle
+int mount_entry_contains(const mount_entry* entry, const char* needle);
+// 1 if the comma-separated mount or superblock options contain option exactly
+int mount_entry_has_option(const mount_entry* entry, const char* option);
+
+#endif
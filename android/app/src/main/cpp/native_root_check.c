@@ -1,7 +1,6 @@
 // MagiskDetector.c
-// Gabungan: original detector + DetectMagiskHide (is_supath + is_mountpaths) + isolated fork check
+// Gabungan: original detector + DetectMagiskHide (is_supath + is_mountpaths) + isolated (clone) check
 
-#include <jni.h>
 #include <string.h>
 #include <stdlib.h>
 #include <unistd.h>
@@ -12,7 +11,6 @@
 #include <sys/stat.h>
 #include <sys/ptrace.h>
 #include <sys/mount.h>
-#include <sys/wait.h>
 #include <sys/types.h>
 #include <sys/inotify.h>
 #include <errno.h>
@@ -21,18 +19,26 @@
 #include <stdbool.h>
 #include <limits.h>
 
+#include "maps_scanner.h"
+#include "mount_table.h"
+#include "native_scan.h"
+#include "isolated_probe.h"
+#include "log_probe.h"
+#include "proc_walker.h"
+#include "scan_context.h"
+
 #define LOG_TAG "MagiskDetector"
 #define LOGD(...) __android_log_print(ANDROID_LOG_DEBUG, LOG_TAG, __VA_ARGS__)
 
-#define TRUE JNI_TRUE
-#define FALSE JNI_FALSE
+#define TRUE true
+#define FALSE false
 
 // -----------------------------
 // DETECTION: your original checks
 // -----------------------------
 
 // --- 1. Cek File Khas Magisk ---
-jboolean checkMagiskFiles() {
+static bool checkMagiskFiles(const magisk_inputs* in) {
     const char *paths[] = {
         "/sbin/magisk", "/init.magisk.rc", "/data/adb/magisk",
         "/dev/.magisk_unblock", "/cache/magisk.log", "/metadata/magisk"
@@ -47,40 +53,34 @@ jboolean checkMagiskFiles() {
 }
 
 // --- 2. Cek mount point yang mencurigakan ---
-jboolean checkMagiskMounts() {
-    FILE *fp = fopen("/proc/self/mounts", "r");
-    if (!fp) return FALSE;
-    char line[512];
-    while (fgets(line, sizeof(line), fp)) {
-        if (strstr(line, "/dev/magisk") || strstr(line, "magisk.img") ||
-            (strstr(line, "tmpfs") && strstr(line, "/dev") && strstr(line, "magisk"))) {
-            fclose(fp);
-            LOGD("Suspicious mount: %s", line);
+static bool checkMagiskMounts(const magisk_inputs* in) {
+    const mount_table* mounts = &in->mounts;
+    for (int i = 0; i < mounts->count; i++) {
+        const mount_entry* e = &mounts->entries[i];
+        if (mount_entry_contains(e, "/dev/magisk") || mount_entry_contains(e, "magisk.img") ||
+            (mount_entry_contains(e, "tmpfs") && mount_entry_contains(e, "/dev") && mount_entry_contains(e, "magisk"))) {
+            LOGD("Suspicious mount: %s %s", e->source, e->mount_point);
             return TRUE;
         }
     }
-    fclose(fp);
     return FALSE;
 }
 
 // --- 3. Cek loaded libraries ---
-jboolean checkLoadedLibraries() {
-    FILE *fp = fopen("/proc/self/maps", "r");
-    if (!fp) return FALSE;
-    char line[512];
-    while (fgets(line, sizeof(line), fp)) {
-        if (strstr(line, "magisk") || strstr(line, "zygisk") || strstr(line, "libsu")) {
-            fclose(fp);
-            LOGD("Suspicious library: %s", line);
-            return TRUE;
-        }
+static int on_loaded_library(const char* line, size_t len, uint32_t matches, void* ctx) {
+    if (matches & (MAPS_BIT(MAPS_SIG_MAGISK) | MAPS_BIT(MAPS_SIG_ZYGISK) | MAPS_BIT(MAPS_SIG_LIBSU))) {
+        LOGD("Suspicious library: %s", line);
+        return 1;
     }
-    fclose(fp);
-    return FALSE;
+    return 0;
+}
+
+static bool checkLoadedLibraries(const magisk_inputs* in) {
+    return maps_scan_file("/proc/self/maps", on_loaded_library, NULL) == 1 ? TRUE : FALSE;
 }
 
 // --- 4. Cek syscall timing ---
-jboolean checkSyscallTiming() {
+static bool checkSyscallTiming(const magisk_inputs* in) {
     struct timespec start, end;
     clock_gettime(CLOCK_MONOTONIC, &start);
     getpid();
@@ -95,7 +95,7 @@ jboolean checkSyscallTiming() {
 }
 
 // --- 5. Cek dengan inotify ---
-jboolean checkInotify() {
+static bool checkInotify(const magisk_inputs* in) {
     int fd = inotify_init();
     if (fd < 0) return FALSE;
     int wd = inotify_add_watch(fd, "/data/adb", IN_ALL_EVENTS);
@@ -109,42 +109,27 @@ jboolean checkInotify() {
 }
 
 // --- 6. Cek logcat (debug Zygisk info) ---
-jboolean checkLogcatZygisk() {
-    FILE *fp = popen("logcat -d | grep zygisk", "r");
-    if (!fp) return FALSE;
-    char buffer[512];
-    while (fgets(buffer, sizeof(buffer), fp)) {
-        if (strstr(buffer, "zygisk") || strstr(buffer, "denylist")) {
-            LOGD("Logcat zygisk: %s", buffer);
-            pclose(fp);
-            return TRUE;
-        }
-    }
-    pclose(fp);
-    return FALSE;
+// Incremental, budgeted read of new log entries, see log_probe.h
+static bool checkLogcatZygisk(const magisk_inputs* in) {
+    static const char* const signatures[] = { "zygisk" };
+    return log_probe_find(signatures, sizeof(signatures) / sizeof(signatures[0])) ? TRUE : FALSE;
 }
 
-jboolean checkWithForkAccess() {
-    pid_t pid = fork();
-    if (pid == 0) {
-        // Child process
-        if (access("/sbin/magisk", F_OK) == 0 ||
-            access("/data/adb/magisk", F_OK) == 0) {
-            _exit(1);
-        }
-        _exit(0);
-    } else if (pid > 0) {
-        int status;
-        waitpid(pid, &status, 0);
-        if (WIFEXITED(status) && WEXITSTATUS(status) == 1) {
-            LOGD("Detected Magisk with fork+access");
-            return TRUE;
-        }
+// Runs in the isolated child, syscalls only
+static int magisk_access_probe(void* arg) {
+    return access("/sbin/magisk", F_OK) == 0 ||
+           access("/data/adb/magisk", F_OK) == 0;
+}
+
+static bool checkWithForkAccess(const magisk_inputs* in) {
+    if (run_isolated_probe(magisk_access_probe, NULL) == 1) {
+        LOGD("Detected Magisk with isolated access");
+        return TRUE;
     }
     return FALSE;
 }
 
-jboolean checkNamespaceIsolation() {
+static bool checkNamespaceIsolation(const magisk_inputs* in) {
     char self_ns[PATH_MAX], init_ns[PATH_MAX];
     ssize_t len;
 
@@ -163,70 +148,74 @@ jboolean checkNamespaceIsolation() {
     return FALSE;
 }
 
-jboolean scanOtherProcMaps() {
-    const char* target_proc[] = { "zygote", "system_server", "init" };
-    DIR* dir = opendir("/proc");
-    if (!dir) return FALSE;
-
-    struct dirent* entry;
-    while ((entry = readdir(dir))) {
-        if (entry->d_type != DT_DIR) continue;
-
-        int pid = atoi(entry->d_name);
-        if (pid <= 0) continue;
-
-        char path[64];
-        snprintf(path, sizeof(path), "/proc/%d/cmdline", pid);
-        FILE* f = fopen(path, "r");
-        if (!f) continue;
-
-        char cmdline[256] = {0};
-        fread(cmdline, 1, sizeof(cmdline) - 1, f);
-        fclose(f);
-
-        for (int i = 0; i < sizeof(target_proc) / sizeof(target_proc[0]); i++) {
-            if (strstr(cmdline, target_proc[i])) {
-                snprintf(path, sizeof(path), "/proc/%d/maps", pid);
-                FILE* maps = fopen(path, "r");
-                if (!maps) continue;
-
-                char line[512];
-                while (fgets(line, sizeof(line), maps)) {
-                    if (strstr(line, "magisk") || strstr(line, "zygisk")) {
-                        LOGD("Found Magisk lib in PID %d (%s): %s", pid, cmdline, line);
-                        fclose(maps);
-                        closedir(dir);
-                        return TRUE;
-                    }
-                }
-                fclose(maps);
-            }
+static int on_target_proc_library(const char* line, size_t len, uint32_t matches, void* ctx) {
+    if (matches & (MAPS_BIT(MAPS_SIG_MAGISK) | MAPS_BIT(MAPS_SIG_ZYGISK))) {
+        LOGD("Found Magisk lib in %s: %s", (const char*) ctx, line);
+        return 1;
+    }
+    return 0;
+}
+
+// Root daemons matched exactly against comm / argv[0] (not substrings, "su" is in "surfaceflinger")
+static const char* const su_process_names[] = { "su", "daemonsu", "magiskd" };
+// Processes whose maps are inspected for injected Magisk/Zygisk libraries
+static const char* const target_proc[] = { "zygote", "zygote64", "system_server", "init" };
+
+#define COUNT_OF(a) (sizeof(a) / sizeof((a)[0]))
+
+static int name_in(const char* name, const char* const* names, size_t count) {
+    for (size_t i = 0; i < count; i++) {
+        if (strcmp(name, names[i]) == 0) return 1;
+    }
+    return 0;
+}
+
+static int on_process(const proc_entry* p, void* ctx) {
+    proc_findings* out = ctx;
+    if (scan_context_expired()) {
+        scan_context_mark_incomplete();
+        return 1;
+    }
+    const char* command = proc_basename(p->argv0);
+
+    if (!out->su_pid &&
+        (name_in(p->comm, su_process_names, COUNT_OF(su_process_names)) ||
+         name_in(command, su_process_names, COUNT_OF(su_process_names)))) {
+        out->su_pid = p->pid;
+        snprintf(out->su_name, sizeof(out->su_name), "%s", p->comm[0] ? p->comm : command);
+        LOGD("su process running: %d %s", p->pid, out->su_name);
+    }
+
+    if (!out->magisk_in_target_maps && name_in(command, target_proc, COUNT_OF(target_proc))) {
+        int fd = openat(p->dir_fd, "maps", O_RDONLY | O_CLOEXEC);
+        if (fd >= 0) {
+            out->magisk_in_target_maps = maps_scan_fd(fd, on_target_proc_library, (void*) p->cmdline) == 1;
+            close(fd);
         }
     }
+    return out->su_pid && out->magisk_in_target_maps;
+}
 
-    closedir(dir);
-    return FALSE;
+// One /proc pass serving both the su process check and the target maps inspection
+void scan_processes(proc_findings* out, int pid_budget) {
+    memset(out, 0, sizeof(*out));
+    int visited = proc_walk(pid_budget, PROC_WANT_COMM | PROC_WANT_CMDLINE, on_process, out, NULL);
+    LOGD("Process scan visited %d pids", visited);
 }
 
-jboolean checkHidepidProc() {
-    FILE* f = fopen("/proc/mounts", "r");
-    if (!f) return JNI_FALSE;
-
-    char line[512];
-    while (fgets(line, sizeof(line), f)) {
-        if (strstr(line, "proc") && strstr(line, "hidepid=")) {
-            if (strstr(line, "hidepid=2")) {
-                LOGD("Possible Magisk/Zygisk hiding detected via hidepid=2: %s", line);
-                fclose(f);
-                return JNI_TRUE;
-            }
+static bool checkHidepidProc(const magisk_inputs* in) {
+    const mount_table* mounts = &in->mounts;
+    for (int i = 0; i < mounts->count; i++) {
+        const mount_entry* e = &mounts->entries[i];
+        if (strcmp(e->fs_type, "proc") == 0 && mount_entry_has_option(e, "hidepid=2")) {
+            LOGD("Possible Magisk/Zygisk hiding detected via hidepid=2: %s", e->mount_point);
+            return TRUE;
         }
     }
-    fclose(f);
-    return JNI_FALSE;
+    return FALSE;
 }
 
-jboolean checkUidNamespaceMismatch() {
+static bool checkUidNamespaceMismatch(const magisk_inputs* in) {
     struct stat st_self, st_init;
     if (stat("/proc/self/ns/mnt", &st_self) != 0 ||
         stat("/proc/1/ns/mnt", &st_init) != 0)
@@ -269,113 +258,121 @@ static const char *suPaths[] = {
 };
 
 // is_supath_detected_local - cek keberadaan file 'su' pada banyak path
-static inline jboolean is_supath_detected_local() {
+// Runs in the isolated child: syscalls only, no logging
+static inline bool is_supath_detected_local() {
     int len = sizeof(suPaths) / sizeof(suPaths[0]);
     for (int i = 0; i < len; i++) {
-        LOGD("Checking SU Path : %s", suPaths[i]);
-        if (open(suPaths[i], O_RDONLY) >= 0) {
-            LOGD("Found SU Path (open): %s", suPaths[i]);
+        int fd = open(suPaths[i], O_RDONLY | O_CLOEXEC);
+        if (fd >= 0) {
+            close(fd);
             return TRUE;
         }
         if (access(suPaths[i], R_OK) == 0) {
-            LOGD("Found SU Path (access): %s", suPaths[i]);
             return TRUE;
         }
     }
     return FALSE;
 }
 
-// is_mountpaths_detected_local - baca /proc/self/mounts keseluruhan lalu cari kata kunci
-static inline jboolean is_mountpaths_detected_local() {
+// is_mountpaths_detected_local - cari kata kunci di snapshot mount table
+// Runs in the isolated child: only reads the already loaded table
+static inline bool is_mountpaths_detected_local(const mount_table* mounts) {
     int len = sizeof(blacklistedMountPaths) / sizeof(blacklistedMountPaths[0]);
-    FILE *fp = fopen("/proc/self/mounts", "r");
-    if (!fp) return FALSE;
-
-    // coba dapatkan ukuran. jika 0, pakai default buffer besar
-    fseek(fp, 0L, SEEK_END);
-    long size = ftell(fp);
-    if (size <= 0) size = 20000;
-    rewind(fp);
-
-    char *buffer = calloc(size + 1, sizeof(char));
-    if (!buffer) {
-        fclose(fp);
-        return FALSE;
-    }
-    size_t read = fread(buffer, 1, size, fp);
-    (void)read; // tidak dipakai secara eksplisit
-
     for (int i = 0; i < len; i++) {
-        LOGD("Checking Mount Path  : %s", blacklistedMountPaths[i]);
-        if (strstr(buffer, blacklistedMountPaths[i]) != NULL) {
-            LOGD("Found Mount Path : %s", blacklistedMountPaths[i]);
-            free(buffer);
-            fclose(fp);
-            return TRUE;
+        for (int j = 0; j < mounts->count; j++) {
+            if (mount_entry_contains(&mounts->entries[j], blacklistedMountPaths[i])) {
+                return TRUE;
+            }
         }
     }
-
-    free(buffer);
-    fclose(fp);
     return FALSE;
 }
 
+static int magisk_hide_probe(void* arg) {
+    const mount_table* mounts = arg;
+    if (is_supath_detected_local()) return 1;
+    if (is_mountpaths_detected_local(mounts)) return 2;
+    return 0;
+}
+
 // -----------------------------
-// Isolated check: jalankan is_supath_detected_local + is_mountpaths_detected_local di child (fork)
+// Isolated check: jalankan is_supath_detected_local + is_mountpaths_detected_local di child
+// (clone CLONE_VM|CLONE_VFORK, tanpa fork - lihat isolated_probe.h)
 // -----------------------------
-jboolean detectMagiskHideIsolated() {
-    pid_t pid = fork();
-    if (pid == -1) {
-        // fork gagal
-        LOGD("fork() failed in detectMagiskHideIsolated: %s", strerror(errno));
+static bool detectMagiskHideIsolated(const magisk_inputs* in) {
+    const mount_table* mounts = &in->mounts;
+    int found = run_isolated_probe(magisk_hide_probe, (void*) mounts);
+    if (found < 0) {
+        LOGD("Isolated probe unavailable in detectMagiskHideIsolated");
         return FALSE;
-    } else if (pid == 0) {
-        // CHILD: jalankan pemeriksaan "native-lib style"
-        if (is_supath_detected_local() || is_mountpaths_detected_local()) {
-            // exit code 1 -> terdeteksi
-            _exit(1);
-        }
-        // exit code 0 -> tidak terdeteksi
-        _exit(0);
-    } else {
-        // PARENT: tunggu hasil child
-        int status = 0;
-        waitpid(pid, &status, 0);
-        if (WIFEXITED(status) && WEXITSTATUS(status) == 1) {
-            LOGD("[Parent] detectMagiskHideIsolated -> DETECTED");
-            return TRUE;
-        }
+    }
+    if (found > 0) {
+        LOGD("[Parent] detectMagiskHideIsolated -> DETECTED (%s)", found == 1 ? "su path" : "mount path");
+        return TRUE;
     }
     return FALSE;
 }
 
-// -----------------------------
-// Kombinasi utama: satukan semua lapisan deteksi
-// -----------------------------
-jboolean isMagiskDetected() {
-    return (
-        checkMagiskFiles() ||
-        checkMagiskMounts() ||
-        checkLoadedLibraries() ||
-        checkSyscallTiming() ||
-        checkInotify() ||
-        checkLogcatZygisk() ||
-        checkWithForkAccess() ||
-        checkNamespaceIsolation() ||
-        scanOtherProcMaps() ||
-        checkHidepidProc() ||
-        checkUidNamespaceMismatch() ||
-        detectMagiskHideIsolated()   // <-- tambahan DetectMagiskHide (isolated)
-    );
+// Zygisk/Magisk present in zygote, system_server or init, found by scan_processes
+static bool checkTargetProcessMaps(const magisk_inputs* in) {
+    return in->processes->magisk_in_target_maps != 0;
+}
+
+// Layers in evaluation order, isMagiskDetected stops at the first positive
+const magisk_layer magisk_layers[] = {
+    {"magiskFiles", checkMagiskFiles, false, SCAN_TIER_TTL},
+    {"magiskMounts", checkMagiskMounts, false, SCAN_TIER_TTL},
+    {"loadedLibraries", checkLoadedLibraries, false, SCAN_TIER_VOLATILE},
+    {"syscallTiming", checkSyscallTiming, false, SCAN_TIER_VOLATILE},
+    {"inotify", checkInotify, false, SCAN_TIER_TTL},
+    {"logcatZygisk", checkLogcatZygisk, true, SCAN_TIER_VOLATILE},
+    {"forkAccess", checkWithForkAccess, true, SCAN_TIER_TTL},
+    {"namespaceIsolation", checkNamespaceIsolation, false, SCAN_TIER_TTL},
+    {"targetProcessMaps", checkTargetProcessMaps, true, SCAN_TIER_VOLATILE},
+    {"hidepidProc", checkHidepidProc, false, SCAN_TIER_TTL},
+    {"uidNamespaceMismatch", checkUidNamespaceMismatch, false, SCAN_TIER_TTL},
+    {"magiskHideIsolated", detectMagiskHideIsolated, true, SCAN_TIER_TTL},   // <-- tambahan DetectMagiskHide (isolated)
+};
+const size_t magisk_layer_count = sizeof(magisk_layers) / sizeof(magisk_layers[0]);
+
+void magisk_inputs_load(magisk_inputs* in, const proc_findings* processes, int tiers) {
+    in->processes = processes;
+    // The mount-based layers are all TTL ones
+    if (!(tiers & SCAN_TIER_TTL)) {
+        memset(&in->mounts, 0, sizeof(in->mounts));
+        return;
+    }
+    // Mount table is read once and shared by every mount-based layer
+    if (mount_table_load(&in->mounts, "self") != 0) {
+        LOGD("Unable to read /proc/self/mountinfo");
+    }
+}
+
+void magisk_inputs_free(magisk_inputs* in) {
+    mount_table_free(&in->mounts);
 }
 
 // -----------------------------
-// JNI ENTRY
+// Kombinasi utama: satukan semua lapisan deteksi
 // -----------------------------
-JNIEXPORT jboolean JNICALL
-Java_com_blemanagerapps_NativeRootDetection_nativeIsRooted(JNIEnv* env, jobject thiz) {
-    LOGD("Magisk detection started");
-    jboolean ret = isMagiskDetected();
-    LOGD("Magisk detection finished: %d", ret == JNI_TRUE ? 1 : 0);
-    return ret;
+bool isMagiskDetected(const proc_findings* processes, int flags) {
+    bool deep = (flags & SCAN_FLAG_DEEP) != 0;
+    int tiers = flags & SCAN_TIERS_ALL;
+    magisk_inputs in;
+    magisk_inputs_load(&in, processes, tiers);
+    bool detected = false;
+    for (size_t i = 0; i < magisk_layer_count && !detected; i++) {
+        if ((magisk_layers[i].deep && !deep) || !(magisk_layers[i].tier & tiers)) {
+            continue;
+        }
+        // Layers not reached by the deadline are skipped, the verdict is then partial
+        if (scan_context_expired()) {
+            LOGD("Deadline reached, %zu Magisk layers skipped from %s", magisk_layer_count - i, magisk_layers[i].name);
+            scan_context_mark_incomplete();
+            break;
+        }
+        detected = magisk_layers[i].run(&in);
+    }
+    magisk_inputs_free(&in);
+    return detected;
 }
@@ -0,0 +1,122 @@
+#include <jni.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <android/log.h>
+
+#include "native_scan.h"
+#include "log_probe.h"
+#include "proc_walker.h"
+#include "prop_reader.h"
+#include "scan_context.h"
+
+#define LOG_TAG "NativeRootDetection"
+#define LOGI(...) __android_log_print(ANDROID_LOG_INFO, LOG_TAG, __VA_ARGS__)
+
+// Single JNI entry for every native signal. Packed result:
+//   [verdict bits : 1 byte][child processes started : 1 byte, saturating]
+//   then per detection "key\0details\0"
+// decoded once on the Java side (NativeRootDetection.decode). With timeout_ms > 0 the
+// scan stops starting checks at the deadline and kills children still running then.
+JNIEXPORT jbyteArray JNICALL
+Java_com_blemanagerapps_NativeRootDetection_runScan(JNIEnv* env, jclass clazz, jint flags, jint pid_budget, jint timeout_ms) {
+    unsigned char verdict = 0;
+    scan_context_begin(timeout_ms);
+    proc_findings processes;
+    memset(&processes, 0, sizeof(processes));
+    if (!(flags & SCAN_TIERS_ALL)) {
+        flags |= SCAN_TIERS_ALL;
+    }
+    // Running processes are volatile. targetProcessMaps is the only layer reading the
+    // walk, and it is a deep one.
+    bool walk = (flags & SCAN_FLAG_PROCESSES) ||
+                ((flags & SCAN_FLAG_MAGISK) && (flags & SCAN_FLAG_DEEP));
+    if (walk && (flags & SCAN_TIER_VOLATILE)) {
+        scan_processes(&processes, pid_budget > 0 ? pid_budget : PROC_DEFAULT_PID_BUDGET);
+    }
+    if ((flags & SCAN_FLAG_MAGISK) && isMagiskDetected(&processes, flags)) {
+        verdict |= SCAN_VERDICT_MAGISK;
+    }
+
+    scan_result result;
+    scan_result_init(&result);
+    if (flags & SCAN_FLAG_DETECTIONS) {
+        run_all_checks_native(&result, flags & SCAN_TIERS_ALL);
+    }
+    if ((flags & SCAN_FLAG_PROCESSES) && (flags & SCAN_TIER_VOLATILE) && processes.su_pid) {
+        char detail[96];
+        snprintf(detail, sizeof(detail), "%d %s", processes.su_pid, processes.su_name);
+        scan_result_push(&result, "su_process_running", detail);
+        verdict |= SCAN_VERDICT_SU_PROCESS;
+    }
+
+    if (scan_context_incomplete()) {
+        verdict |= SCAN_VERDICT_INCOMPLETE;
+    }
+    unsigned spawns = scan_context_spawns();
+    size_t size = SCAN_HEADER_SIZE;
+    for (int i = 0; i < result.count; i++) {
+        size += strlen(result.keys[i]) + 1 + strlen(scan_result_detail(&result, i)) + 1;
+    }
+
+    jbyteArray packed = NULL;
+    unsigned char* buffer = malloc(size);
+    if (buffer) {
+        unsigned char* p = buffer;
+        *p++ = verdict;
+        *p++ = (unsigned char) (spawns > 255 ? 255 : spawns);
+        for (int i = 0; i < result.count; i++) {
+            const char* fields[2] = { result.keys[i], scan_result_detail(&result, i) };
+            for (int f = 0; f < 2; f++) {
+                size_t len = strlen(fields[f]) + 1;
+                memcpy(p, fields[f], len);
+                p += len;
+            }
+        }
+        packed = (*env)->NewByteArray(env, (jsize) size);
+        if (packed) {
+            (*env)->SetByteArrayRegion(env, packed, 0, (jsize) size, (const jbyte*) buffer);
+        }
+        free(buffer);
+    }
+
+    LOGI("Native scan (flags %d): verdict %d, %d detections, %u processes", flags, verdict, result.count, spawns);
+    scan_result_free(&result);
+    return packed;
+}
+
+// Where scans keep state between runs (the logcat cursor)
+JNIEXPORT void JNICALL
+Java_com_blemanagerapps_NativeRootDetection_setStateDir(JNIEnv* env, jclass clazz, jstring dir) {
+    const char* path = (*env)->GetStringUTFChars(env, dir, NULL);
+    if (!path) return;
+    log_probe_set_state_dir(path);
+    (*env)->ReleaseStringUTFChars(env, dir, path);
+}
+
+// JNI bridge: String[] keys -> String[] values, one transition for the whole batch
+JNIEXPORT jobjectArray JNICALL
+Java_com_blemanagerapps_SystemPropertyReader_nativeGetProperties(JNIEnv* env, jclass clazz, jobjectArray keys) {
+    jsize count = (*env)->GetArrayLength(env, keys);
+    jclass stringClass = (*env)->FindClass(env, "java/lang/String");
+    jobjectArray values = (*env)->NewObjectArray(env, count, stringClass, NULL);
+    if (!values) return NULL;
+
+    char value[PROP_VALUE_MAX];
+    for (jsize i = 0; i < count; i++) {
+        jstring key = (jstring) (*env)->GetObjectArrayElement(env, keys, i);
+        if (!key) continue;
+        const char* ckey = (*env)->GetStringUTFChars(env, key, NULL);
+        if (ckey) {
+            read_system_property(ckey, value);
+            (*env)->ReleaseStringUTFChars(env, key, ckey);
+        } else {
+            value[0] = '\0';
+        }
+        jstring s = (*env)->NewStringUTF(env, value);
+        (*env)->SetObjectArrayElement(env, values, i, s);
+        (*env)->DeleteLocalRef(env, s);
+        (*env)->DeleteLocalRef(env, key);
+    }
+    return values;
+}
@@ -0,0 +1,96 @@
+#ifndef NATIVE_SCAN_H
+#define NATIVE_SCAN_H
+
+#include <stdbool.h>
+#include <stddef.h>
+
+#include "mount_table.h"
+#include "prop_reader.h"
+#include "scan_result.h"
+
+// Flags of NativeRootDetection.runScan, keep in sync with the Java constants
+#define SCAN_FLAG_MAGISK      0x1   // isMagiskDetected layers (native_root_check.c)
+#define SCAN_FLAG_DETECTIONS  0x2   // keyed detections (root_detector.c)
+#define SCAN_FLAG_PROCESSES   0x4   // running su processes (one /proc walk, shared with SCAN_FLAG_MAGISK)
+#define SCAN_FLAG_DEEP        0x8   // with SCAN_FLAG_MAGISK, also the deep layers (probes, logcat, /proc walk)
+
+// Tiers of the checks, as RootCheck.Tier: the Java side caches a scan of the BOOT and TTL
+// tiers and on later scans only asks for VOLATILE. No tier bit selects all of them.
+#define SCAN_TIER_BOOT        0x10  // cannot change without a reboot (ro.* properties, kernel)
+#define SCAN_TIER_TTL         0x20  // filesystem and mount state
+#define SCAN_TIER_VOLATILE    0x40  // process state: maps, running processes, the log, timing
+#define SCAN_TIERS_ALL        (SCAN_TIER_BOOT | SCAN_TIER_TTL | SCAN_TIER_VOLATILE)
+
+// Bits of the verdict byte at the start of the packed result
+#define SCAN_VERDICT_MAGISK      0x1
+#define SCAN_VERDICT_SU_PROCESS  0x2
+#define SCAN_VERDICT_INCOMPLETE  0x4   // the deadline cut the scan short, results are partial
+
+// Verdict byte and process spawn count, keep in sync with NativeRootDetection.decode
+#define SCAN_HEADER_SIZE 2
+
+typedef struct {
+    int su_pid;                 // 0 if no su process was seen
+    char su_name[64];
+    int magisk_in_target_maps;  // Magisk/Zygisk mapped into zygote, system_server or init
+} proc_findings;
+
+void scan_processes(proc_findings* out, int pid_budget);
+
+// ----- Magisk layers (native_root_check.c) -----
+
+// Read once per scan and shared by the layers
+typedef struct {
+    mount_table mounts;                 // /proc/self/mountinfo
+    const proc_findings* processes;
+} magisk_inputs;
+
+typedef struct {
+    const char* name;
+    bool (*run)(const magisk_inputs* in);
+    bool deep;      // starts child processes, reads the log or needs the /proc walk
+    int tier;       // SCAN_TIER_*
+} magisk_layer;
+
+// In evaluation order; exposed for the host benchmark (cpp/bench)
+extern const magisk_layer magisk_layers[];
+extern const size_t magisk_layer_count;
+
+// Only what the layers of the given tiers read is loaded
+void magisk_inputs_load(magisk_inputs* in, const proc_findings* processes, int tiers);
+void magisk_inputs_free(magisk_inputs* in);
+// flags: SCAN_FLAG_DEEP and the SCAN_TIER_* bits of the layers to run
+bool isMagiskDetected(const proc_findings* processes, int flags);
+
+// ----- Keyed detections (root_detector.c) -----
+
+enum {
+    DETECTION_PROP_VERIFIED_BOOT_STATE,
+    DETECTION_PROP_OEM_UNLOCK_SUPPORTED,
+    DETECTION_PROP_BUILD_FINGERPRINT,
+    DETECTION_PROP_COUNT
+};
+
+// Read once per scan and shared by the checks
+typedef struct {
+    char props[DETECTION_PROP_COUNT][PROP_VALUE_MAX];
+    mount_table self_mounts;
+    mount_table init_mounts;
+} detection_inputs;
+
+typedef struct {
+    const char* name;
+    void (*run)(scan_result* out, const detection_inputs* in);
+    int tier;       // SCAN_TIER_*
+} detection_check;
+
+// In run order; exposed for the host benchmark (cpp/bench)
+extern const detection_check detection_checks[];
+extern const size_t detection_check_count;
+
+// Only what the checks of the given tiers read is loaded
+void detection_inputs_load(detection_inputs* in, int tiers);
+void detection_inputs_free(detection_inputs* in);
+void run_all_checks_native(scan_result* out, int tiers);
+
+#endif
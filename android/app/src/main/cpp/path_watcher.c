@@ -0,0 +1,213 @@
+#define _GNU_SOURCE
+#include <jni.h>
+#include <errno.h>
+#include <fcntl.h>
+#include <poll.h>
+#include <stdint.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <unistd.h>
+#include <sys/inotify.h>
+#include <android/log.h>
+
+#include "path_watcher.h"
+
+#define LOG_TAG "PathWatcher"
+#define LOGD(...) __android_log_print(ANDROID_LOG_DEBUG, LOG_TAG, __VA_ARGS__)
+
+#define WATCH_MASK (IN_CREATE | IN_DELETE | IN_MOVED_FROM | IN_MOVED_TO | IN_DELETE_SELF | IN_MOVE_SELF | IN_ONLYDIR)
+
+path_watcher* path_watcher_open(void) {
+    path_watcher* watcher = calloc(1, sizeof(path_watcher));
+    if (!watcher) return NULL;
+    watcher->inotify_fd = inotify_init1(IN_CLOEXEC | IN_NONBLOCK);
+    if (watcher->inotify_fd < 0) {
+        free(watcher);
+        return NULL;
+    }
+    if (pipe2(watcher->wake_fds, O_CLOEXEC | O_NONBLOCK) != 0) {
+        close(watcher->inotify_fd);
+        free(watcher);
+        return NULL;
+    }
+    return watcher;
+}
+
+static int slot_of(const path_watcher* watcher, int wd) {
+    for (int i = 0; i < watcher->count; i++) {
+        if (watcher->wds[i] == wd) return i;
+    }
+    return -1;
+}
+
+int path_watcher_add(path_watcher* watcher, const char* dir) {
+    for (int i = 0; i < watcher->count; i++) {
+        if (watcher->wds[i] >= 0 && strcmp(watcher->dirs[i], dir) == 0) return 1;
+    }
+    int wd = inotify_add_watch(watcher->inotify_fd, dir, WATCH_MASK);
+    if (wd < 0) {
+        LOGD("Cannot watch %s: %s", dir, strerror(errno));
+        return 0;
+    }
+    // inotify hands back the existing wd if the same inode is already watched
+    int slot = slot_of(watcher, wd);
+    if (slot < 0) {
+        for (slot = 0; slot < watcher->count && watcher->wds[slot] >= 0; slot++) {
+        }
+        if (slot == watcher->count) {
+            if (watcher->count == PATH_WATCHER_MAX_DIRS) {
+                inotify_rm_watch(watcher->inotify_fd, wd);
+                return 0;
+            }
+            watcher->count++;
+        }
+    }
+    free(watcher->dirs[slot]);
+    watcher->dirs[slot] = strdup(dir);
+    watcher->wds[slot] = wd;
+    return 1;
+}
+
+static void drop_slot(path_watcher* watcher, int slot) {
+    free(watcher->dirs[slot]);
+    watcher->dirs[slot] = NULL;
+    watcher->wds[slot] = -1;
+}
+
+int path_watcher_read(path_watcher* watcher, path_event_cb cb, void* ctx) {
+    struct pollfd fds[2] = {
+        { .fd = watcher->inotify_fd, .events = POLLIN },
+        { .fd = watcher->wake_fds[0], .events = POLLIN }
+    };
+    for (;;) {
+        if (poll(fds, 2, -1) < 0) {
+            if (errno == EINTR) continue;
+            return -1;
+        }
+        if (fds[1].revents) return PATH_WATCHER_WOKEN;
+        if (fds[0].revents) break;
+    }
+
+    char buffer[4096] __attribute__((aligned(__alignof__(struct inotify_event))));
+    ssize_t len = read(watcher->inotify_fd, buffer, sizeof(buffer));
+    if (len < 0) return (errno == EAGAIN || errno == EINTR) ? 0 : -1;
+
+    int delivered = 0;
+    path_event event;
+    for (char* p = buffer; p < buffer + len; ) {
+        const struct inotify_event* ev = (const struct inotify_event*) p;
+        p += sizeof(struct inotify_event) + ev->len;
+
+        int slot = slot_of(watcher, ev->wd);
+        if (slot < 0) continue;
+        if (ev->mask & IN_IGNORED) {
+            // Watch removed by the kernel (directory deleted or unmounted)
+            drop_slot(watcher, slot);
+            continue;
+        }
+
+        if (ev->mask & (IN_DELETE_SELF | IN_MOVE_SELF)) {
+            event.kind = PATH_EVENT_DELETED;
+            strncpy(event.path, watcher->dirs[slot], sizeof(event.path) - 1);
+            event.path[sizeof(event.path) - 1] = '\0';
+        } else if (ev->len > 0) {
+            event.kind = (ev->mask & (IN_CREATE | IN_MOVED_TO)) ? PATH_EVENT_CREATED : PATH_EVENT_DELETED;
+            const char* dir = watcher->dirs[slot];
+            snprintf(event.path, sizeof(event.path), "%s%s%s",
+                     dir, dir[strlen(dir) - 1] == '/' ? "" : "/", ev->name);
+        } else {
+            continue;
+        }
+        delivered++;
+        if (cb(&event, ctx)) break;
+    }
+    return delivered;
+}
+
+void path_watcher_wake(path_watcher* watcher) {
+    char byte = 1;
+    write(watcher->wake_fds[1], &byte, 1);
+}
+
+void path_watcher_close(path_watcher* watcher) {
+    if (!watcher) return;
+    for (int i = 0; i < watcher->count; i++) {
+        free(watcher->dirs[i]);
+    }
+    close(watcher->inotify_fd);
+    close(watcher->wake_fds[0]);
+    close(watcher->wake_fds[1]);
+    free(watcher);
+}
+
+// -----------------------------
+// JNI bridge for RootPathWatcher
+// -----------------------------
+
+typedef struct {
+    JNIEnv* env;
+    jobjectArray out;
+    jsize index;
+} jni_events;
+
+static int push_event(const path_event* event, void* ctx) {
+    jni_events* events = ctx;
+    JNIEnv* env = events->env;
+    if (events->index + 2 > (*env)->GetArrayLength(env, events->out)) return 1;
+    jstring kind = (*env)->NewStringUTF(env, event->kind == PATH_EVENT_CREATED ? "created" : "deleted");
+    jstring path = (*env)->NewStringUTF(env, event->path);
+    (*env)->SetObjectArrayElement(env, events->out, events->index++, kind);
+    (*env)->SetObjectArrayElement(env, events->out, events->index++, path);
+    (*env)->DeleteLocalRef(env, kind);
+    (*env)->DeleteLocalRef(env, path);
+    return 0;
+}
+
+JNIEXPORT jlong JNICALL
+Java_com_blemanagerapps_RootPathWatcher_nativeOpen(JNIEnv* env, jclass clazz) {
+    return (jlong)(intptr_t) path_watcher_open();
+}
+
+JNIEXPORT jboolean JNICALL
+Java_com_blemanagerapps_RootPathWatcher_nativeAdd(JNIEnv* env, jclass clazz, jlong handle, jstring dir) {
+    const char* path = (*env)->GetStringUTFChars(env, dir, NULL);
+    if (!path) return JNI_FALSE;
+    int added = path_watcher_add((path_watcher*)(intptr_t) handle, path);
+    (*env)->ReleaseStringUTFChars(env, dir, path);
+    return added ? JNI_TRUE : JNI_FALSE;
+}
+
+// Flattened {kind, path, kind, path, ...}, possibly empty; null after a wake, IOException on error
+JNIEXPORT jobjectArray JNICALL
+Java_com_blemanagerapps_RootPathWatcher_nativeRead(JNIEnv* env, jclass clazz, jlong handle) {
+    jclass stringClass = (*env)->FindClass(env, "java/lang/String");
+    // A 4KB read holds at most 256 events
+    jni_events events = { env, (*env)->NewObjectArray(env, 512, stringClass, NULL), 0 };
+    if (!events.out) return NULL;
+    int read = path_watcher_read((path_watcher*)(intptr_t) handle, push_event, &events);
+    if (read == PATH_WATCHER_WOKEN) return NULL;
+    if (read < 0) {
+        jclass ioException = (*env)->FindClass(env, "java/io/IOException");
+        if (ioException) (*env)->ThrowNew(env, ioException, strerror(errno));
+        return NULL;
+    }
+
+    jobjectArray trimmed = (*env)->NewObjectArray(env, events.index, stringClass, NULL);
+    for (jsize i = 0; trimmed && i < events.index; i++) {
+        jobject item = (*env)->GetObjectArrayElement(env, events.out, i);
+        (*env)->SetObjectArrayElement(env, trimmed, i, item);
+        (*env)->DeleteLocalRef(env, item);
+    }
+    return trimmed;
+}
+
+JNIEXPORT void JNICALL
+Java_com_blemanagerapps_RootPathWatcher_nativeWake(JNIEnv* env, jclass clazz, jlong handle) {
+    path_watcher_wake((path_watcher*)(intptr_t) handle);
+}
+
+JNIEXPORT void JNICALL
+Java_com_blemanagerapps_RootPathWatcher_nativeClose(JNIEnv* env, jclass clazz, jlong handle) {
+    path_watcher_close((path_watcher*)(intptr_t) handle);
+}
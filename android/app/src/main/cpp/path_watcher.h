@@ -0,0 +1,42 @@
+#ifndef PATH_WATCHER_H
+#define PATH_WATCHER_H
+
+// Long-lived inotify watcher over the directories that hold root indicators.
+// One thread blocks in path_watcher_read; any other thread may call path_watcher_wake.
+
+#define PATH_WATCHER_MAX_DIRS 64
+
+// Returned by path_watcher_read once path_watcher_wake was called
+#define PATH_WATCHER_WOKEN (-2)
+
+typedef enum {
+    PATH_EVENT_CREATED,
+    PATH_EVENT_DELETED
+} path_event_kind;
+
+typedef struct {
+    path_event_kind kind;
+    char path[4096];
+} path_event;
+
+typedef int (*path_event_cb)(const path_event* event, void* ctx);
+
+typedef struct {
+    int inotify_fd;
+    int wake_fds[2];
+    int count;
+    int wds[PATH_WATCHER_MAX_DIRS];
+    char* dirs[PATH_WATCHER_MAX_DIRS];
+} path_watcher;
+
+path_watcher* path_watcher_open(void);
+// 1 if the directory is now watched, 0 if it cannot be (missing, EACCES, table full)
+int path_watcher_add(path_watcher* watcher, const char* dir);
+// Blocks until events arrive or the watcher is woken. Returns the number of events
+// delivered, which may be 0 (only IN_IGNORED, unknown watches, a spurious wakeup),
+// PATH_WATCHER_WOKEN after a wake, -1 on error
+int path_watcher_read(path_watcher* watcher, path_event_cb cb, void* ctx);
+void path_watcher_wake(path_watcher* watcher);
+void path_watcher_close(path_watcher* watcher);
+
+#endif
@@ -0,0 +1,103 @@
+#include <dirent.h>
+#include <fcntl.h>
+#include <stdint.h>
+#include <string.h>
+#include <unistd.h>
+#include <sys/syscall.h>
+
+#include "proc_walker.h"
+
+#define DENTS_BUFFER   (16 * 1024)
+#define COMM_BUFFER    64
+#define CMDLINE_BUFFER 1024
+
+struct linux_dirent64 {
+    uint64_t d_ino;
+    int64_t d_off;
+    unsigned short d_reclen;
+    unsigned char d_type;
+    char d_name[];
+};
+
+const char* proc_basename(const char* command) {
+    const char* slash = strrchr(command, '/');
+    return slash ? slash + 1 : command;
+}
+
+static int parse_pid(const char* name) {
+    int pid = 0;
+    for (; *name; name++) {
+        if (*name < '0' || *name > '9') return -1;
+        pid = pid * 10 + (*name - '0');
+    }
+    return pid;
+}
+
+// Reads a small /proc/<pid> file into buf, returns the length (0 on failure)
+static size_t read_small(int dir_fd, const char* name, char* buf, size_t size) {
+    int fd = openat(dir_fd, name, O_RDONLY | O_CLOEXEC);
+    if (fd < 0) {
+        buf[0] = '\0';
+        return 0;
+    }
+    ssize_t len = read(fd, buf, size - 1);
+    close(fd);
+    if (len < 0) len = 0;
+    buf[len] = '\0';
+    return (size_t) len;
+}
+
+int proc_walk(int pid_budget, unsigned want, proc_visit_cb cb, void* ctx, int* stopped) {
+    if (stopped) *stopped = 0;
+    int proc_fd = open("/proc", O_RDONLY | O_DIRECTORY | O_CLOEXEC);
+    if (proc_fd < 0) return -1;
+
+    char dents[DENTS_BUFFER] __attribute__((aligned(8)));
+    char comm[COMM_BUFFER];
+    char cmdline[CMDLINE_BUFFER];
+    char argv0[CMDLINE_BUFFER];
+    int visited = 0;
+    int done = 0;
+
+    while (!done && visited < pid_budget) {
+        long n = syscall(SYS_getdents64, proc_fd, dents, sizeof(dents));
+        if (n <= 0) break;
+
+        for (long off = 0; off < n && !done && visited < pid_budget; ) {
+            struct linux_dirent64* d = (struct linux_dirent64*) (dents + off);
+            off += d->d_reclen;
+            if (d->d_type != DT_DIR) continue;
+            int pid = parse_pid(d->d_name);
+            if (pid <= 0) continue;
+
+            int dir_fd = openat(proc_fd, d->d_name, O_RDONLY | O_DIRECTORY | O_CLOEXEC);
+            // The process exited since the listing
+            if (dir_fd < 0) continue;
+            visited++;
+
+            comm[0] = '\0';
+            if (want & PROC_WANT_COMM) {
+                size_t len = read_small(dir_fd, "comm", comm, sizeof(comm));
+                if (len > 0 && comm[len - 1] == '\n') comm[len - 1] = '\0';
+            }
+            cmdline[0] = argv0[0] = '\0';
+            if (want & PROC_WANT_CMDLINE) {
+                size_t len = read_small(dir_fd, "cmdline", cmdline, sizeof(cmdline));
+                memcpy(argv0, cmdline, len + 1);
+                for (size_t i = 0; i + 1 < len; i++) {
+                    if (cmdline[i] == '\0') cmdline[i] = ' ';
+                }
+            }
+
+            proc_entry entry = { pid, dir_fd, comm, argv0, cmdline };
+            if (cb(&entry, ctx)) {
+                done = 1;
+                if (stopped) *stopped = 1;
+            }
+            close(dir_fd);
+        }
+    }
+
+    close(proc_fd);
+    return visited;
+}
@@ -0,0 +1,32 @@
+#ifndef PROC_WALKER_H
+#define PROC_WALKER_H
+
+#include <stddef.h>
+
+// Single pass over /proc with getdents64 and openat. Per-process data is read into
+// buffers owned by the walk and reused for every PID, so a walk does no allocation.
+
+#define PROC_WANT_COMM     0x1
+#define PROC_WANT_CMDLINE  0x2
+
+#define PROC_DEFAULT_PID_BUDGET 2048
+
+typedef struct {
+    int pid;
+    int dir_fd;             // open /proc/<pid>, valid only during the callback
+    const char* comm;       // without the trailing newline, "" if not requested or unreadable
+    const char* argv0;      // first cmdline argument, "" for kernel threads
+    const char* cmdline;    // arguments separated by spaces, truncated to the buffer
+} proc_entry;
+
+// Return non-zero to stop the walk
+typedef int (*proc_visit_cb)(const proc_entry* entry, void* ctx);
+
+// Visits at most pid_budget processes. Returns the number visited, or -1 if /proc
+// cannot be read. *stopped (may be NULL) tells whether the callback ended the walk.
+int proc_walk(int pid_budget, unsigned want, proc_visit_cb cb, void* ctx, int* stopped);
+
+// Last path component of a command, "/system/bin/su" -> "su"
+const char* proc_basename(const char* command);
+
+#endif
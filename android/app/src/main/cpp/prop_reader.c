@@ -0,0 +1,19 @@
+#include <string.h>
+#include "prop_reader.h"
+
+int read_system_property(const char* key, char* value) {
+    value[0] = '\0';
+    if (!key) return 0;
+    int len = __system_property_get(key, value);
+    if (len < 0) {
+        value[0] = '\0';
+        return 0;
+    }
+    return len;
+}
+
+void read_system_properties(const char* const* keys, char (*values)[PROP_VALUE_MAX], int count) {
+    for (int i = 0; i < count; i++) {
+        read_system_property(keys[i], values[i]);
+    }
+}
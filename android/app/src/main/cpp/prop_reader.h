@@ -0,0 +1,13 @@
+#ifndef PROP_READER_H
+#define PROP_READER_H
+
+#include <sys/system_properties.h>
+
+// Reads one system property in-process (no getprop fork). Unset keys read as "".
+// value must hold PROP_VALUE_MAX bytes. Returns the value length.
+int read_system_property(const char* key, char* value);
+
+// Reads count keys into values[i] in one pass.
+void read_system_properties(const char* const* keys, char (*values)[PROP_VALUE_MAX], int count);
+
+#endif
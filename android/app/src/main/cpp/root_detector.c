@@ -1,4 +1,3 @@
-#include <jni.h>
 #include <string.h>
 #include <stdlib.h>
 #include <stdio.h>
@@ -9,36 +8,37 @@
 #include <fcntl.h>
 #include <android/log.h>
 
+#include "maps_scanner.h"
+#include "mount_table.h"
+#include "prop_reader.h"
+#include "scan_result.h"
+#include "str_set.h"
+#include "native_scan.h"
+#include "scan_context.h"
+
 #define LOG_TAG "NativeRootDetection"
 #define LOGI(...) __android_log_print(ANDROID_LOG_INFO, LOG_TAG, __VA_ARGS__)
 #define LOGD(...) __android_log_print(ANDROID_LOG_DEBUG, LOG_TAG, __VA_ARGS__)
 #define LOGE(...) __android_log_print(ANDROID_LOG_ERROR, LOG_TAG, __VA_ARGS__)
 
-// Helper: append result into an array-like vector (C-style)
-#define MAX_RESULTS 128
-#define MAX_STR_LEN 1024
-
-static char results[MAX_RESULTS][MAX_STR_LEN];
-static int results_count = 0;
-
-static void push_result(const char* key, const char* details) {
-    if (results_count >= MAX_RESULTS) return;
-    if (!key) return;
-    if (!details) details = "";
-    snprintf(results[results_count], MAX_STR_LEN, "%s|%s", key, details);
-    results_count++;
-}
+// System properties used by the checks below, indexed by DETECTION_PROP_*
+static const char* const prop_keys[DETECTION_PROP_COUNT] = {
+    "ro.boot.verifiedbootstate",
+    "ro.oem_unlock_supported",
+    "ro.build.fingerprint"
+};
 
 // ----- Checks -----
 
 // 1) Look for su binary in common locations (native version)
-static void check_su_paths() {
+static void check_su_paths(scan_result* out, const detection_inputs* in) {
     const char* paths[] = {
         "/system/bin/su",
         "/system/xbin/su",
         "/sbin/su",
         "/vendor/bin/su",
         "/su/bin/su",
+        "/magisk/su",
         "/data/local/xbin/su",
         "/data/local/bin/su",
         "/data/local/su",
@@ -47,13 +47,13 @@ static void check_su_paths() {
     for (int i=0; paths[i]; ++i) {
         struct stat st;
         if (stat(paths[i], &st) == 0) {
-            push_result("found_su_binary", paths[i]);
+            scan_result_push(out, "found_su_binary", paths[i]);
         }
     }
 }
 
 // 2) Check Magisk specific files and directories
-static void check_magisk_paths() {
+static void check_magisk_paths(scan_result* out, const detection_inputs* in) {
     const char* paths[] = {
         "/sbin/.magisk",
         "/data/adb/magisk",
@@ -65,135 +65,146 @@ static void check_magisk_paths() {
     for (int i=0; paths[i]; ++i) {
         struct stat st;
         if (stat(paths[i], &st) == 0) {
-            push_result("detected_magisk", paths[i]);
+            scan_result_push(out, "detected_magisk", paths[i]);
         }
     }
 }
 
-// 3) Detect Zygisk-like anonymous RWX mappings by parsing /proc/self/maps
-static void check_proc_maps_for_zygisk() {
-    FILE* f = fopen("/proc/self/maps", "r");
-    if (!f) return;
-    char line[1024];
-    int anon_rwx_count = 0;
-    while (fgets(line, sizeof(line), f)) {
-        // line example: 7f6c1e0000-7f6c1e3000 rwxp 00000000 00:00 0                          [anon:zygisk]
-        if (strstr(line, "rwx") && (strstr(line, "anon") || strstr(line, "[anon]"))) {
-            anon_rwx_count++;
-            if (anon_rwx_count <= 5) {
-                // include a sample line as detail
-                char sample[512];
-                snprintf(sample, sizeof(sample), "%s", line);
-                push_result("detected_zygisk", sample);
-            }
-        }
-        // also check for library names that hint zygisk/ksu
-        if (strstr(line, "zygisk") || strstr(line, "ksu") || strstr(line, "magisk")) {
-            push_result("detected_zygisk_assistant", line);
+// 3) Scan /proc/self/maps once for Zygisk-like anonymous RWX mappings and injected libraries
+typedef struct {
+    scan_result* out;
+    int anon_rwx_count;
+} self_maps_scan;
+
+static int on_self_maps_line(const char* line, size_t len, uint32_t m, void* ctx) {
+    self_maps_scan* scan = ctx;
+    scan_result* out = scan->out;
+    // line example: 7f6c1e0000-7f6c1e3000 rwxp 00000000 00:00 0                          [anon:zygisk]
+    if ((m & MAPS_BIT(MAPS_SIG_RWX)) && (m & MAPS_BIT(MAPS_SIG_ANON))) {
+        scan->anon_rwx_count++;
+        if (scan->anon_rwx_count <= 5) {
+            // include a sample line as detail
+            scan_result_push(out, "detected_zygisk", line);
         }
     }
-    if (anon_rwx_count > 0) {
+    // also check for library names that hint zygisk/ksu
+    if (m & (MAPS_BIT(MAPS_SIG_ZYGISK) | MAPS_BIT(MAPS_SIG_KSU) | MAPS_BIT(MAPS_SIG_MAGISK))) {
+        scan_result_push(out, "detected_zygisk_assistant", line);
+    }
+    // generic detection of injected libraries
+    if ((m & MAPS_BIT(MAPS_SIG_SHARED_LIB)) &&
+        (m & (MAPS_BIT(MAPS_SIG_DATA_ADB) | MAPS_BIT(MAPS_SIG_MAGISK_DIR) | MAPS_BIT(MAPS_SIG_LSPOSED) | MAPS_BIT(MAPS_SIG_ZYGISK)))) {
+        scan_result_push(out, "found_injection", line);
+    }
+    if (m & MAPS_BIT(MAPS_SIG_LSPOSED)) {
+        scan_result_push(out, "detected_lsposed", line);
+    }
+    return 0;
+}
+
+static void check_self_maps(scan_result* out, const detection_inputs* in) {
+    self_maps_scan scan = { .out = out, .anon_rwx_count = 0 };
+    if (maps_scan_file("/proc/self/maps", on_self_maps_line, &scan) < 0) return;
+    if (scan.anon_rwx_count > 0) {
         char detail[64];
-        snprintf(detail, sizeof(detail), "anon_rwx=%d", anon_rwx_count);
-        push_result("detected_zygisk_next", detail);
+        snprintf(detail, sizeof(detail), "anon_rwx=%d", scan.anon_rwx_count);
+        scan_result_push(out, "detected_zygisk_next", detail);
     }
-    fclose(f);
 }
 
-// 4) Compare /proc/self/mountinfo vs /proc/1/mountinfo to detect hidden mounts
-static void check_mount_inconsistency() {
-    FILE* f1 = fopen("/proc/self/mountinfo", "r");
-    FILE* f2 = fopen("/proc/1/mountinfo", "r");
-    if (!f1 || !f2) {
-        if (f1) fclose(f1);
-        if (f2) fclose(f2);
-        return;
+// 4) Compare /proc/self/mountinfo vs /proc/1/mountinfo to detect hidden mounts.
+// An app's namespace always differs from init's (per-app /data/user and storage views,
+// APEX binds), so only the trees root hiding mounts over or unmounts are compared.
+static const char* const hide_targets[] = {
+    "/system", "/system_ext", "/vendor", "/product", "/odm", "/sbin", "/data/adb", "/debug_ramdisk", NULL
+};
+
+static int is_hide_target(const char* mount_point) {
+    for (int i = 0; hide_targets[i]; i++) {
+        size_t len = strlen(hide_targets[i]);
+        if (strncmp(mount_point, hide_targets[i], len) == 0 &&
+            (mount_point[len] == '\0' || mount_point[len] == '/')) {
+            return 1;
+        }
     }
-    // Build a quick set of mountpoints from proc/1
-    char buf[1024];
-    // store /proc/1 mount points into a simple list
-    char mounts1[1024][256];
-    int m1 = 0;
-    while (fgets(buf, sizeof(buf), f2) && m1 < 1024) {
-        // parse mount point (field 5). Simplest approach: find first space after ID fields
-        // We'll search for ' - ' which separates optional fields if present; fallback to full line
-        char *p = strchr(buf, '/');
-        if (p) {
-            // trim newline
-            char *nl = strchr(p, '\n'); if (nl) *nl = '\0';
-            strncpy(mounts1[m1++], p, 255);
+    return 0;
+}
+
+static void report_missing_mounts(scan_result* out, const mount_table* from, const mount_table* other, const char* key) {
+    str_set other_points;
+    if (str_set_init(&other_points, other->count) != 0) return;
+    for (int i = 0; i < other->count; i++) {
+        if (is_hide_target(other->entries[i].mount_point)) {
+            str_set_add(&other_points, other->entries[i].mount_point);
         }
     }
-    // Now check proc/self and see if any mount doesn't exist in proc/1
-    while (fgets(buf, sizeof(buf), f1)) {
-        char *p = strchr(buf, '/');
-        if (p) {
-            char mp[256];
-            char *nl = strchr(p, '\n'); if (nl) *nl = '\0';
-            strncpy(mp, p, 255);
-            int found = 0;
-            for (int i=0;i<m1;i++) {
-                if (strstr(mounts1[i], mp) != NULL || strstr(mp, mounts1[i]) != NULL) { found = 1; break; }
-            }
-            if (!found) {
-                // Found mount that appears in self but not in init — suspicious
-                push_result("detected_mount_inconsistency", mp);
-            }
+    for (int i = 0; i < from->count; i++) {
+        const char* mount_point = from->entries[i].mount_point;
+        if (is_hide_target(mount_point) && !str_set_contains(&other_points, mount_point)) {
+            scan_result_push(out, key, mount_point);
         }
     }
-    fclose(f1); fclose(f2);
+    str_set_free(&other_points);
+}
+
+static void check_mount_inconsistency(scan_result* out, const detection_inputs* in) {
+    const mount_table* self = &in->self_mounts;
+    const mount_table* init = &in->init_mounts;
+    if (self->count == 0 || init->count == 0) return;
+    // Mount in self but not in init — suspicious
+    report_missing_mounts(out, self, init, "detected_mount_inconsistency");
+    // Mount in init but hidden from self — typical of denylist unmounting
+    report_missing_mounts(out, init, self, "detected_hidden_mount");
 }
 
 // 5) Detect overlayfs
-static void check_overlayfs() {
+static void check_overlayfs(scan_result* out, const detection_inputs* in) {
+    const mount_table* self = &in->self_mounts;
     FILE* f = fopen("/proc/filesystems", "r");
     if (!f) return;
     char line[256];
     while (fgets(line, sizeof(line), f)) {
         if (strstr(line, "overlay")) {
-            push_result("detected_overlayfs", "overlay supported");
+            scan_result_push(out, "detected_overlayfs", "overlay supported");
             break;
         }
     }
     fclose(f);
     // also check mounts for overlay keyword
-    f = fopen("/proc/mounts", "r");
-    if (!f) return;
-    while (fgets(line, sizeof(line), f)) {
-        if (strstr(line, "overlay")) {
-            push_result("detected_overlay_mounted", line);
+    for (int i = 0; i < self->count; i++) {
+        if (mount_entry_contains(&self->entries[i], "overlay")) {
+            scan_result_push(out, "detected_overlay_mounted", self->entries[i].mount_point);
             break;
         }
     }
-    fclose(f);
 }
 
 // 6) Detect resetprop
-static void check_resetprop() {
+static void check_resetprop(scan_result* out, const detection_inputs* in) {
     const char* paths[] = {"/system/bin/resetprop","/system/xbin/resetprop","/sbin/resetprop","/vendor/bin/resetprop","/system/bin/.ext/.resetprop","/data/local/tmp/resetprop", NULL};
     for (int i=0; paths[i]; ++i) {
         struct stat st;
         if (stat(paths[i], &st) == 0) {
-            push_result("detected_resetprop", paths[i]);
+            scan_result_push(out, "detected_resetprop", paths[i]);
         }
     }
 }
 
 // 7) Detect modified hosts file
-static void check_hosts_file() {
+static void check_hosts_file(scan_result* out, const detection_inputs* in) {
     const char* hosts[] = {"/system/etc/hosts", "/etc/hosts", NULL};
     for (int i=0; hosts[i]; ++i) {
         struct stat st;
         if (stat(hosts[i], &st) == 0) {
             if (st.st_size > 2048) {
-                push_result("detected_modified_hosts_file", hosts[i]);
+                scan_result_push(out, "detected_modified_hosts_file", hosts[i]);
             }
         }
     }
 }
 
 // 8) Detect common Magisk module markers like 'hide' or 'ksu' in /data/adb/modules
-static void check_magisk_modules() {
+static void check_magisk_modules(scan_result* out, const detection_inputs* in) {
     const char* dir = "/data/adb/modules";
     DIR* d = opendir(dir);
     if (!d) return;
@@ -202,13 +213,13 @@ static void check_magisk_modules() {
         if (entry->d_name[0] == '.') continue;
         char path[512];
         snprintf(path, sizeof(path), "%s/%s", dir, entry->d_name);
-        push_result("detected_magisk_module", path);
+        scan_result_push(out, "detected_magisk_module", path);
     }
     closedir(d);
 }
 
 // 9) Detect suspicious apps by reading /data/app (note: might require permissions on non-rooted devices, but we'll attempt)
-static void check_installed_packages_dir() {
+static void check_installed_packages_dir(scan_result* out, const detection_inputs* in) {
     const char* dir = "/data/app";
     DIR* d = opendir(dir);
     if (!d) return;
@@ -217,184 +228,165 @@ static void check_installed_packages_dir() {
         if (entry->d_name[0] == '.') continue;
         // heuristic: packages under data/app commonly contain package-name strings
         if (strstr(entry->d_name, "magisk") || strstr(entry->d_name, "superuser") || strstr(entry->d_name, "lsposed")) {
-            push_result("detected_risky_app", entry->d_name);
+            scan_result_push(out, "detected_risky_app", entry->d_name);
         }
     }
     closedir(d);
 }
 
 // 10) Check for KSU/AP modules image (ksu-specific hints)
-static void check_ksu_ap_modules_img() {
+static void check_ksu_ap_modules_img(scan_result* out, const detection_inputs* in) {
     const char* paths[] = {"/apex/com.kernelsu", "/data/ksu/modules.img", NULL};
     for (int i=0; paths[i]; ++i) {
         struct stat st;
         if (stat(paths[i], &st) == 0) {
-            push_result("detected_ksu_ap_modules_img", paths[i]);
+            scan_result_push(out, "detected_ksu_ap_modules_img", paths[i]);
         }
     }
 }
 
 // 11) Bootloader/unlock checks (best effort via ro properties)
-static void check_bootloader_and_oem() {
-    // read /proc/cmdline or /sys/class/android_usb/android0/state? limited. Use getprop via reading /system/build.prop fallback
-    FILE* f = popen("getprop ro.boot.verifiedbootstate 2>/dev/null", "r");
-    if (f) {
-        char buf[128];
-        if (fgets(buf, sizeof(buf), f)) {
-            if (strstr(buf, "orange") || strstr(buf, "unlocked") || strstr(buf, "unknown")) {
-                push_result("bootloader_unlocked", buf);
-            }
-        }
-        pclose(f);
+static void check_bootloader_and_oem(scan_result* out, const detection_inputs* in) {
+    const char (*props)[PROP_VALUE_MAX] = in->props;
+    const char* state = props[DETECTION_PROP_VERIFIED_BOOT_STATE];
+    // An empty or unknown state says nothing about the lock
+    if (strstr(state, "orange") || strstr(state, "unlocked")) {
+        scan_result_push(out, "bootloader_unlocked", state);
     }
-    f = popen("getprop ro.oem_unlock_supported 2>/dev/null", "r");
-    if (f) {
-        char buf[128];
-        if (fgets(buf, sizeof(buf), f)) {
-            if (strstr(buf, "1")) push_result("oem_unlocking_enabled", buf);
-        }
-        pclose(f);
+    // The device offers OEM unlocking, not that the user turned it on
+    if (strstr(props[DETECTION_PROP_OEM_UNLOCK_SUPPORTED], "1")) {
+        scan_result_push(out, "oem_unlock_supported", props[DETECTION_PROP_OEM_UNLOCK_SUPPORTED]);
     }
 }
 
 // 12) TEE / keybox checks (best effort placeholder — real attestation must use Android APIs)
-static void check_keybox_and_tee() {
-    // Attempt to read keymaster info via getprop
-    FILE* f = popen("getprop ro.boot.verifiedbootstate 2>/dev/null", "r");
-    if (!f) return;
-    char buf[128];
-    if (fgets(buf, sizeof(buf), f)) {
-        if (strstr(buf, "orange") || strstr(buf, "failed")) {
-            push_result("tee_is_broken", buf);
-        }
+static void check_keybox_and_tee(scan_result* out, const detection_inputs* in) {
+    const char (*props)[PROP_VALUE_MAX] = in->props;
+    const char* state = props[DETECTION_PROP_VERIFIED_BOOT_STATE];
+    if (strstr(state, "orange") || strstr(state, "failed")) {
+        scan_result_push(out, "tee_is_broken", state);
     }
-    pclose(f);
 }
 
-// 13) Generic detection of injected libraries in /proc/self/maps
-static void check_injected_libraries() {
-    FILE* f = fopen("/proc/self/maps", "r");
-    if (!f) return;
-    char line[1024];
-    while (fgets(line, sizeof(line), f)) {
-        if (strstr(line, ".so") && (strstr(line, "/data/adb") || strstr(line, "/magisk") || strstr(line, "lsposed") || strstr(line, "zygisk"))) {
-            push_result("found_injection", line);
-        }
-        if (strstr(line, "lsposed")) {
-            push_result("detected_lsposed", line);
-        }
-    }
-    fclose(f);
-}
+// 13) Injected libraries in /proc/self/maps are reported by check_self_maps (3)
 
 // 14) Detect hide_my_applist module heuristics
-static void check_hide_my_applist() {
+static void check_hide_my_applist(scan_result* out, const detection_inputs* in) {
     // Check common module names
     const char* names[] = {"hmap", "hide_my_applist", "hideapplist", NULL};
     for (int i=0; names[i]; ++i) {
         char path[256];
         snprintf(path, sizeof(path), "/data/adb/modules/%s", names[i]);
         struct stat st;
-        if (stat(path, &st) == 0) push_result("detected_hide_my_applist", path);
+        if (stat(path, &st) == 0) scan_result_push(out, "detected_hide_my_applist", path);
     }
 }
 
 // 15) Detect custom ROM / lineage
-static void check_custom_rom() {
-    FILE* f = popen("getprop ro.build.fingerprint 2>/dev/null", "r");
-    if (!f) return;
-    char buf[512];
-    if (fgets(buf, sizeof(buf), f)) {
-        if (strstr(buf, "lineage") || strstr(buf, "omni") || strstr(buf, "aosp")) {
-            push_result("detected_lineageos", buf);
-            // vendor sepolicy check
-            FILE* v = fopen("/vendor/etc/selinux/vendor_sepolicy.cil", "r");
-            if (v) {
-                char tmp[256];
-                while (fgets(tmp, sizeof(tmp), v)) {
-                    if (strstr(tmp, "lineage")) {
-                        push_result("vendor_sepolicy_contains_lineage", "vendor_sepolicy.cil");
-                        break;
-                    }
+static void check_custom_rom(scan_result* out, const detection_inputs* in) {
+    const char (*props)[PROP_VALUE_MAX] = in->props;
+    const char* fingerprint = props[DETECTION_PROP_BUILD_FINGERPRINT];
+    if (strstr(fingerprint, "lineage") || strstr(fingerprint, "omni") || strstr(fingerprint, "aosp")) {
+        scan_result_push(out, "detected_lineageos", fingerprint);
+        // vendor sepolicy check
+        FILE* v = fopen("/vendor/etc/selinux/vendor_sepolicy.cil", "r");
+        if (v) {
+            char tmp[256];
+            while (fgets(tmp, sizeof(tmp), v)) {
+                if (strstr(tmp, "lineage")) {
+                    scan_result_push(out, "vendor_sepolicy_contains_lineage", "vendor_sepolicy.cil");
+                    break;
                 }
-                fclose(v);
             }
+            fclose(v);
         }
     }
-    pclose(f);
 }
 
 // 16) Detected custom kernel
-static void check_custom_kernel() {
+static void check_custom_kernel(scan_result* out, const detection_inputs* in) {
     FILE* f = fopen("/proc/version", "r");
     if (!f) return;
     char buf[512];
     if (fgets(buf, sizeof(buf), f)) {
         if (strstr(buf, "android") == NULL || strstr(buf, "gcc") != NULL) {
-            push_result("detected_custom_kernel", buf);
+            scan_result_push(out, "detected_custom_kernel", buf);
         }
     }
     fclose(f);
 }
 
 // 17) Detect GApps (heuristic)
-static void check_gapps() {
+static void check_gapps(scan_result* out, const detection_inputs* in) {
     // look for package com.google.android.gms directory under /data/app or /system
     const char* paths[] = {"/system/priv-app/GoogleGmsCore","/data/app/com.google.android.gms-","/system/app/GoogleServicesFramework", NULL};
     for (int i=0; paths[i]; ++i) {
         struct stat st;
-        if (stat(paths[i], &st) == 0) push_result("detected_gapps", paths[i]);
+        if (stat(paths[i], &st) == 0) scan_result_push(out, "detected_gapps", paths[i]);
     }
 }
 
 // 18) Detect framework patch (smali or Xposed/LSPosed-like patches)
-static void check_framework_patch() {
+static void check_framework_patch(scan_result* out, const detection_inputs* in) {
     // heuristics: /system/framework/XposedBridge.jar or modifications to /system/framework
     struct stat st;
-    if (stat("/system/framework/XposedBridge.jar", &st) == 0) push_result("detected_framework_patch", "/system/framework/XposedBridge.jar");
-}
-
-// Main aggregator
-static void run_all_checks_native() {
-    results_count = 0;
-    check_su_paths();
-    check_magisk_paths();
-    check_proc_maps_for_zygisk();
-    check_mount_inconsistency();
-    check_overlayfs();
-    check_resetprop();
-    check_hosts_file();
-    check_magisk_modules();
-    check_installed_packages_dir();
-    check_ksu_ap_modules_img();
-    check_bootloader_and_oem();
-    check_keybox_and_tee();
-    check_injected_libraries();
-    check_hide_my_applist();
-    check_custom_rom();
-    check_custom_kernel();
-    check_gapps();
-    check_framework_patch();
+    if (stat("/system/framework/XposedBridge.jar", &st) == 0) scan_result_push(out, "detected_framework_patch", "/system/framework/XposedBridge.jar");
 }
 
-// JNI bridge
-JNIEXPORT jobjectArray JNICALL
-Java_com_blemanagerapps_NativeRootDetection_checkAllRootPossibility(JNIEnv* env, jobject thiz) {
-    run_all_checks_native();
+// Checks in run order
+const detection_check detection_checks[] = {
+    {"suPaths", check_su_paths, SCAN_TIER_TTL},
+    {"magiskPaths", check_magisk_paths, SCAN_TIER_TTL},
+    {"selfMaps", check_self_maps, SCAN_TIER_VOLATILE},
+    {"mountInconsistency", check_mount_inconsistency, SCAN_TIER_TTL},
+    {"overlayfs", check_overlayfs, SCAN_TIER_TTL},
+    {"resetprop", check_resetprop, SCAN_TIER_TTL},
+    {"hostsFile", check_hosts_file, SCAN_TIER_TTL},
+    {"magiskModules", check_magisk_modules, SCAN_TIER_TTL},
+    {"installedPackagesDir", check_installed_packages_dir, SCAN_TIER_TTL},
+    {"ksuApModulesImg", check_ksu_ap_modules_img, SCAN_TIER_TTL},
+    {"bootloaderAndOem", check_bootloader_and_oem, SCAN_TIER_BOOT},
+    {"keyboxAndTee", check_keybox_and_tee, SCAN_TIER_BOOT},
+    {"hideMyApplist", check_hide_my_applist, SCAN_TIER_TTL},
+    {"customRom", check_custom_rom, SCAN_TIER_BOOT},
+    {"customKernel", check_custom_kernel, SCAN_TIER_BOOT},
+    {"gapps", check_gapps, SCAN_TIER_TTL},
+    {"frameworkPatch", check_framework_patch, SCAN_TIER_TTL},
+};
+const size_t detection_check_count = sizeof(detection_checks) / sizeof(detection_checks[0]);
 
-    LOGI("Running all root detection checks...");
-    LOGI("Total results: %d", results_count);
+void detection_inputs_load(detection_inputs* in, int tiers) {
+    memset(in, 0, sizeof(*in));
+    // Every property the checks need, read once without spawning getprop
+    if (tiers & SCAN_TIER_BOOT) {
+        read_system_properties(prop_keys, in->props, DETECTION_PROP_COUNT);
+    }
+    // Mount tables are read once per scan and shared by the mount-based checks
+    if (tiers & SCAN_TIER_TTL) {
+        mount_table_load(&in->self_mounts, "self");
+        mount_table_load(&in->init_mounts, "1");
+    }
+}
 
-    jclass stringClass = (*env)->FindClass(env, "java/lang/String");
-    jobjectArray arr = (*env)->NewObjectArray(env, results_count, stringClass, NULL);
+void detection_inputs_free(detection_inputs* in) {
+    mount_table_free(&in->self_mounts);
+    mount_table_free(&in->init_mounts);
+}
 
-    for (int i = 0; i < results_count; i++) {
-        LOGI("Check #%d result: %s", i + 1, results[i]); // <-- log result
-        jstring s = (*env)->NewStringUTF(env, results[i]);
-        (*env)->SetObjectArrayElement(env, arr, i, s);
-        (*env)->DeleteLocalRef(env, s);
+// Main aggregator
+void run_all_checks_native(scan_result* out, int tiers) {
+    detection_inputs in;
+    detection_inputs_load(&in, tiers);
+    for (size_t i = 0; i < detection_check_count; i++) {
+        if (!(detection_checks[i].tier & tiers)) {
+            continue;
+        }
+        if (scan_context_expired()) {
+            LOGD("Deadline reached, %zu checks skipped from %s", detection_check_count - i, detection_checks[i].name);
+            scan_context_mark_incomplete();
+            break;
+        }
+        detection_checks[i].run(out, &in);
     }
-
-    LOGI("All checks completed, returning results to Java.");
-    return arr;
-}
\ No newline at end of file
+    detection_inputs_free(&in);
+}
@@ -0,0 +1,49 @@
+#include <time.h>
+
+#include "scan_context.h"
+
+typedef struct {
+    long long deadline_ns;   // CLOCK_MONOTONIC, 0 without a deadline
+    int incomplete;
+    unsigned spawns;
+} scan_context;
+
+static __thread scan_context context;
+
+static long long now_ns(void) {
+    struct timespec ts;
+    clock_gettime(CLOCK_MONOTONIC, &ts);
+    return (long long) ts.tv_sec * 1000000000LL + ts.tv_nsec;
+}
+
+void scan_context_begin(int timeout_ms) {
+    context.deadline_ns = timeout_ms > 0 ? now_ns() + (long long) timeout_ms * 1000000LL : 0;
+    context.incomplete = 0;
+    context.spawns = 0;
+}
+
+int scan_context_expired(void) {
+    return context.deadline_ns != 0 && now_ns() >= context.deadline_ns;
+}
+
+long scan_context_remaining_ms(long fallback) {
+    if (context.deadline_ns == 0) return fallback;
+    long long left = context.deadline_ns - now_ns();
+    return left > 0 ? (long) (left / 1000000LL) : 0;
+}
+
+void scan_context_mark_incomplete(void) {
+    context.incomplete = 1;
+}
+
+int scan_context_incomplete(void) {
+    return context.incomplete;
+}
+
+void scan_context_count_spawn(void) {
+    context.spawns++;
+}
+
+unsigned scan_context_spawns(void) {
+    return context.spawns;
+}
@@ -0,0 +1,25 @@
+#ifndef SCAN_CONTEXT_H
+#define SCAN_CONTEXT_H
+
+// State of the native scan running on the calling thread: its deadline, whether any
+// check was cut short by it, and the child processes it started. A scan runs on one
+// thread from start to finish (NativeRootDetection.runScan), so concurrent scans each
+// see their own context. A thread that never called scan_context_begin has no deadline.
+
+// Starts a scan; timeout_ms <= 0 means no deadline
+void scan_context_begin(int timeout_ms);
+
+// 1 once the deadline has passed
+int scan_context_expired(void);
+// Milliseconds left before the deadline (0 when expired), fallback without a deadline
+long scan_context_remaining_ms(long fallback);
+
+// Called by a check that stopped early or skipped work because of the deadline
+void scan_context_mark_incomplete(void);
+int scan_context_incomplete(void);
+
+// Child processes started by the scan (isolated probes, logcat)
+void scan_context_count_spawn(void);
+unsigned scan_context_spawns(void);
+
+#endif
@@ -0,0 +1,63 @@
+#include <stdlib.h>
+#include <string.h>
+
+#include "scan_result.h"
+
+#define INITIAL_RESULTS 32
+#define INITIAL_DETAILS 4096
+
+void scan_result_init(scan_result* result) {
+    memset(result, 0, sizeof(*result));
+}
+
+void scan_result_free(scan_result* result) {
+    free(result->keys);
+    free(result->detail_offsets);
+    free(result->details);
+    memset(result, 0, sizeof(*result));
+}
+
+static int reserve_entries(scan_result* result) {
+    if (result->count < result->capacity) return 0;
+    int capacity = result->capacity ? result->capacity * 2 : INITIAL_RESULTS;
+    const char** keys = realloc(result->keys, sizeof(*keys) * capacity);
+    if (!keys) return -1;
+    result->keys = keys;
+    size_t* offsets = realloc(result->detail_offsets, sizeof(*offsets) * capacity);
+    if (!offsets) return -1;
+    result->detail_offsets = offsets;
+    result->capacity = capacity;
+    return 0;
+}
+
+static int reserve_details(scan_result* result, size_t extra) {
+    if (result->details_len + extra <= result->details_cap) return 0;
+    size_t cap = result->details_cap ? result->details_cap : INITIAL_DETAILS;
+    while (cap < result->details_len + extra) cap *= 2;
+    char* details = realloc(result->details, cap);
+    if (!details) return -1;
+    result->details = details;
+    result->details_cap = cap;
+    return 0;
+}
+
+int scan_result_push(scan_result* result, const char* key, const char* detail) {
+    if (!key) return -1;
+    if (!detail) detail = "";
+    size_t len = strlen(detail);
+    // maps lines are pushed as details, drop the trailing newline if any
+    if (len > 0 && detail[len - 1] == '\n') len--;
+
+    if (reserve_entries(result) != 0 || reserve_details(result, len + 1) != 0) return -1;
+    result->keys[result->count] = key;
+    result->detail_offsets[result->count] = result->details_len;
+    memcpy(result->details + result->details_len, detail, len);
+    result->details[result->details_len + len] = '\0';
+    result->details_len += len + 1;
+    result->count++;
+    return 0;
+}
+
+const char* scan_result_detail(const scan_result* result, int index) {
+    return result->details + result->detail_offsets[index];
+}
@@ -0,0 +1,25 @@
+#ifndef SCAN_RESULT_H
+#define SCAN_RESULT_H
+
+#include <stddef.h>
+
+// Findings of one scan invocation. Keys are static strings, details are copied into
+// a single growing buffer, so concurrent scans never share state.
+typedef struct {
+    const char** keys;
+    size_t* detail_offsets;
+    int count;
+    int capacity;
+    char* details;
+    size_t details_len;
+    size_t details_cap;
+} scan_result;
+
+void scan_result_init(scan_result* result);
+void scan_result_free(scan_result* result);
+
+// key must outlive the result (string literal). Returns 0 on success, -1 if out of memory.
+int scan_result_push(scan_result* result, const char* key, const char* detail);
+const char* scan_result_detail(const scan_result* result, int index);
+
+#endif
@@ -0,0 +1,68 @@
+#include <stdint.h>
+#include <stdlib.h>
+#include <string.h>
+
+#include "str_set.h"
+
+// FNV-1a, good enough for short path strings
+static uint32_t hash_string(const char* s) {
+    uint32_t h = 2166136261u;
+    while (*s) {
+        h ^= (unsigned char) *s++;
+        h *= 16777619u;
+    }
+    return h;
+}
+
+int str_set_init(str_set* set, size_t expected) {
+    size_t capacity = 16;
+    while (capacity < expected * 2) capacity <<= 1;
+    set->slots = calloc(capacity, sizeof(const char*));
+    set->capacity = set->slots ? capacity : 0;
+    set->count = 0;
+    return set->slots ? 0 : -1;
+}
+
+void str_set_free(str_set* set) {
+    free(set->slots);
+    set->slots = NULL;
+    set->capacity = set->count = 0;
+}
+
+// Linear probing: returns the slot holding value, or the empty slot where it belongs
+static size_t find_slot(const str_set* set, const char* value, int* found) {
+    size_t mask = set->capacity - 1;
+    size_t i = hash_string(value) & mask;
+    for (size_t probes = 0; probes < set->capacity; probes++) {
+        const char* slot = set->slots[i];
+        if (!slot) {
+            *found = 0;
+            return i;
+        }
+        if (strcmp(slot, value) == 0) {
+            *found = 1;
+            return i;
+        }
+        i = (i + 1) & mask;
+    }
+    *found = 0;
+    return set->capacity;
+}
+
+int str_set_add(str_set* set, const char* value) {
+    if (set->capacity == 0) return -1;
+    int found;
+    size_t i = find_slot(set, value, &found);
+    if (found) return 0;
+    if (i == set->capacity) return -1;
+    set->slots[i] = value;
+    set->count++;
+    return 1;
+}
+
+int str_set_contains(const str_set* set, const char* value) {
+    if (set->capacity == 0) return 0;
+    int found;
+    find_slot(set, value, &found);
+    return found;
+}
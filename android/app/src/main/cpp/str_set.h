@@ -0,0 +1,21 @@
+#ifndef STR_SET_H
+#define STR_SET_H
+
+#include <stddef.h>
+
+// Open-addressing hash set of borrowed C strings (the caller keeps them alive)
+typedef struct {
+    const char** slots;
+    size_t capacity;    // power of two
+    size_t count;
+} str_set;
+
+// Sizes the table for expected entries at <= 50% load. Returns 0 on success.
+int str_set_init(str_set* set, size_t expected);
+void str_set_free(str_set* set);
+
+// Returns 1 if added, 0 if already present, -1 if the table is full
+int str_set_add(str_set* set, const char* value);
+int str_set_contains(const str_set* set, const char* value);
+
+#endif
@@ -0,0 +1,35 @@
+package com.blemanagerapps;
+
+import com.scottyab.rootbeer.RootBeer;
+
+// RootBeer.isRooted() with its child processes counted in ScanMetrics. Runs the checks
+// of rootbeer-lib 0.1.1 isRooted() in the same order, stopping at the first positive;
+// three of them exec a process (getprop, mount, `which su`).
+public class CountedRootBeer {
+    private final RootBeer rootBeer;
+
+    public CountedRootBeer(RootBeer rootBeer) {
+        this.rootBeer = rootBeer;
+    }
+
+    public boolean isRooted() {
+        if (rootBeer.detectRootManagementApps() || rootBeer.detectPotentiallyDangerousApps()
+                || rootBeer.checkForBinary("su")) {
+            return true;
+        }
+        spawned();
+        if (rootBeer.checkForDangerousProps()) {
+            return true;
+        }
+        spawned();
+        if (rootBeer.checkForRWPaths() || rootBeer.detectTestKeys()) {
+            return true;
+        }
+        spawned();
+        return rootBeer.checkSuExists() || rootBeer.checkForRootNative() || rootBeer.checkForMagiskBinary();
+    }
+
+    private static void spawned() {
+        ScanMetrics.getInstance().countProcessSpawns(1);
+    }
+}
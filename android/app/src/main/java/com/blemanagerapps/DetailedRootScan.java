@@ -0,0 +1,494 @@
+package com.blemanagerapps;
+
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// The pipeline behind getDetailedRootInfo, free of the bridge: runs the checks on the
+// RootCheckEngine, merges native and Java detections and scores the outcome.
+// EnhancedRootDetectionModule converts the Report for JS; the host benchmarks
+// (android/benchmarks) run it directly against fixture environments.
+public class DetailedRootScan {
+    private static final String TAG = "EnhancedRootDetection";
+    // The native scan stops this much before the deadline, so its partial results are
+    // decoded and used instead of the whole call being abandoned
+    static final int NATIVE_DEADLINE_MARGIN_MS = 25;
+    // Scope of the checks' keys, shared with EnhancedRootDetectionModule.isRooted and its cache
+    static final String SCOPE = "EnhancedRootDetectionModule";
+    // The one cacheable check a profile may leave out
+    static final String ROOT_BEER_CHECK = "isDeviceRootedRootBeer";
+    // Reported per tier, e.g. nativeScanVolatile
+    static final String NATIVE_SCAN_CHECK = "nativeScan";
+    static final String ROOT_DETECTOR_CHECK = "rootDetector";
+
+    // SU binary paths - CHECK ONLY, NEVER EXECUTE
+    static final String[] SU_PATHS = {
+        "/system/app/Superuser.apk",
+        "/sbin/su",
+        "/system/bin/su", 
+        "/system/xbin/su",
+        "/data/local/xbin/su",
+        "/data/local/bin/su",
+        "/system/sd/xbin/su",
+        "/system/bin/failsafe/su",
+        "/data/local/su",
+        "/su/bin/su",
+        "/system/xbin/daemonsu"
+    };
+
+    // Root management apps
+    static final String[] ROOT_PACKAGES = {
+        "com.noshufou.android.su",
+        "com.noshufou.android.su.elite", 
+        "eu.chainfire.supersu",
+        "com.koushikdutta.superuser",
+        "com.thirdparty.superuser",
+        "com.yellowes.su",
+        "com.topjohnwu.magisk",
+        "com.kingroot.kinguser",
+        "com.kingo.root",
+        "com.smedialink.oneclickroot",
+        "com.zhiqupk.root.global",
+        "com.alephzain.framaroot",
+        "com.android.vending.billing.InAppBillingService.COIN",
+        "com.chelpus.lackypatch",
+        "com.ramdroid.appquarantine"
+    };
+
+    // Potentially dangerous apps that modify system
+    static final String[] DANGEROUS_PACKAGES = {
+        "com.koushikdutta.rommanager",
+        "com.koushikdutta.rommanager.license",
+        "com.dimonvideo.luckypatcher",
+        "com.chelpus.lackypatch",
+        "com.android.vending.billing.InAppBillingService.COIN",
+        "uret.jasi2169.patcher",
+        "com.forpda.luckypatcherinstaller",
+        "com.android.vending.billing.InAppBillingService.LACK"
+    };
+
+    static final String[] SUSPICIOUS_PATHS = {
+        "/system/recovery-from-boot.p",
+        "/system/etc/init.d/99SuperSUDaemon",
+        "/dev/com.koushikdutta.superuser.daemon/",
+        "/system/xbin/daemonsu"
+    };
+
+    // Matched exactly against /proc/<pid>/comm, keep in sync with native_root_check.c
+    static final Set<String> SU_PROCESS_NAMES = new HashSet<>(Arrays.asList("su", "daemonsu", "magiskd"));
+
+    // Detection keys (RootDetector, root_detector.c, native_scan.c) that only a rooted
+    // device or a root framework produces; they count toward isRooted
+    static final Set<String> ROOT_DETECTIONS = new HashSet<>(Arrays.asList(
+        "found_su_binary", "detected_magisk", "detected_root_app", "su_process_running",
+        "detected_zygisk_assistant", "found_injection", "detected_lsposed", "detected_resetprop",
+        "detected_magisk_module", "detected_hide_my_applist", "detected_ksu_ap_modules_img",
+        "detected_framework_patch", "detected_risky_app"
+    ));
+    // Unlocked or modified builds: raise riskScore only. The rest describe the device and
+    // are informational: detected_gapps, detected_overlayfs, oem_unlock_supported,
+    // detected_custom_kernel (any gcc-built kernel) and the anonymous rwx maps of
+    // detected_zygisk and detected_zygisk_next, which JIT code produces as well.
+    static final Set<String> TAMPER_DETECTIONS = new HashSet<>(Arrays.asList(
+        "bootloader_unlocked", "tee_is_broken", "detected_lineageos",
+        "vendor_sepolicy_contains_lineage", "detected_modified_hosts_file",
+        "detected_overlay_mounted", "detected_mount_inconsistency", "detected_hidden_mount",
+        "addon_d_or_install_recovery_sh_exists", "debug_fingerprint_detected"
+    ));
+
+    public static class Report {
+        // Check name -> outcome, in the order they are reported to JS
+        public final Map<String, Boolean> checks;
+        public final List<RootDetector.Detection> detections;
+        public final boolean isRooted;
+        public final int riskScore;
+        // Per-check wall and CPU time of this scan, with its JNI calls and child processes
+        public final ScanMetrics.Summary timings;
+        // Checks that missed the deadline; they count as negative, so with any of them
+        // isRooted and riskScore are lower bounds
+        public final List<String> timedOut;
+        public final boolean partial;
+        public final ScanProfile profile;
+
+        Report(Map<String, Boolean> checks, List<RootDetector.Detection> detections, boolean isRooted, int riskScore,
+               ScanMetrics.Summary timings, List<String> timedOut, ScanProfile profile) {
+            this.checks = checks;
+            this.detections = detections;
+            this.isRooted = isRooted;
+            this.riskScore = riskScore;
+            this.timings = timings;
+            this.timedOut = timedOut;
+            this.partial = !timedOut.isEmpty();
+            this.profile = profile;
+        }
+    }
+
+    private final RootEnvironment environment;
+    private final Callable<Boolean> rootBeer;
+    private final RootCheckCache cache;
+    private final ScanProfile profile;
+    private final long deadlineMs;
+
+    // cache may be null to run every check
+    public DetailedRootScan(RootEnvironment environment, Callable<Boolean> rootBeer, RootCheckCache cache) {
+        this(environment, rootBeer, cache, ScanProfile.DEEP, 0);
+    }
+
+    // Runs the checks of profile. run() returns within about deadlineMs (no limit if <= 0),
+    // with partial results.
+    public DetailedRootScan(RootEnvironment environment, Callable<Boolean> rootBeer, RootCheckCache cache,
+                            ScanProfile profile, long deadlineMs) {
+        this.environment = environment;
+        this.rootBeer = rootBeer;
+        this.cache = cache;
+        this.profile = profile;
+        this.deadlineMs = deadlineMs;
+    }
+
+    // Checks whose results RootCheckCache keeps between scans (BOOT and TTL tiers)
+    static List<RootCheck> cacheableChecks(RootEnvironment environment, ProbeRegistry probes, Callable<Boolean> rootBeer) {
+        return RootCheck.scoped(SCOPE, Arrays.asList(
+            new RootCheck("suBinaryExists", RootCheck.Cost.FILE_STAT, RootCheck.Tier.TTL, () -> checkSuExists(probes)),
+            new RootCheck("rootPackagesFound", RootCheck.Cost.PACKAGE_MANAGER, RootCheck.Tier.TTL, () -> checkPackages(probes)),
+            new RootCheck("testKeys", RootCheck.Cost.FILE_STAT, RootCheck.Tier.BOOT, () -> checkBuildTags(environment)),
+            new RootCheck("dangerousProps", RootCheck.Cost.FILE_STAT, RootCheck.Tier.BOOT, () -> checkProps(environment)),
+            new RootCheck("suspiciousPaths", RootCheck.Cost.FILE_STAT, RootCheck.Tier.TTL, () -> checkPaths(probes)),
+            new RootCheck("rwSystemPartition", RootCheck.Cost.FILE_STAT, RootCheck.Tier.TTL, () -> checkRWPaths(environment.mounts.read())),
+            new RootCheck("dangerousApps", RootCheck.Cost.PACKAGE_MANAGER, RootCheck.Tier.TTL, () -> checkDangerousApps(probes)),
+            new RootCheck(ROOT_BEER_CHECK, RootCheck.Cost.PROCESS, RootCheck.Tier.TTL, rootBeer)
+        ));
+    }
+
+    // Cold-start part of a scan: the BOOT tier, Java and native, for every profile. The
+    // TTL checks are left to the first scan, RootBeer spawns processes and the package
+    // and file probes would compete with the first render.
+    static void prewarm(RootCheckCache cache, RootEnvironment environment) {
+        List<RootCheck> bootChecks = new ArrayList<>();
+        for (RootCheck check : cacheableChecks(environment, new ProbeRegistry(environment), null)) {
+            if (check.tier == RootCheck.Tier.BOOT) {
+                bootChecks.add(check);
+            }
+        }
+        cache.warm(bootChecks);
+        if (!NativeRootDetection.isAvailable()) {
+            return;
+        }
+        String name = NATIVE_SCAN_CHECK + RootCheck.Tier.BOOT.suffix;
+        for (ScanProfile profile : ScanProfile.values()) {
+            RootCheck key = new RootCheck(name, RootCheck.Cost.NATIVE, RootCheck.Tier.BOOT, null).scoped(SCOPE + "." + profile);
+            if (cache.getDetail(key, NativeRootDetection.Result.class) != null) {
+                continue;
+            }
+            NativeRootDetection.Result scan = NativeRootDetection.scan(profile.nativeFlags | NativeRootDetection.TIER_BOOT);
+            if (scan.complete) {
+                cache.putDetail(key, scan.magiskDetected || scan.suProcessRunning || !scan.detections.isEmpty(), scan);
+            }
+        }
+    }
+
+    public Report run() {
+        long startNanos = System.nanoTime();
+        ScanMetrics.Scan metrics = ScanMetrics.getInstance().beginScan();
+        ProbeRegistry probes = new ProbeRegistry(environment);
+        RootDetector rootDetector = new RootDetector(environment, probes);
+        List<AtomicReference<NativeRootDetection.Result>> nativeResults = new ArrayList<>();
+        AtomicReference<List<RootDetector.Detection>> javaDetections = new AtomicReference<>(Collections.emptyList());
+
+        List<RootCheck> tasks = new ArrayList<>();
+        for (RootCheck check : cacheableChecks(environment, probes, rootBeer)) {
+            if (profile.rootBeer || !ROOT_BEER_CHECK.equals(check.name)) {
+                tasks.add(check);
+            }
+        }
+        // Checks reported in timings: the tasks plus those served from the cache here
+        List<RootCheck> reported = new ArrayList<>(tasks);
+
+        // Magisk layers, keyed detections and su processes, one JNI call per tier. The
+        // BOOT and TTL results are cached with their detections, so a poll with a warm
+        // cache only rescans maps, processes and the log.
+        boolean nativeTtlCached = false;
+        for (RootCheck.Tier tier : RootCheck.Tier.values()) {
+            String name = NATIVE_SCAN_CHECK + tier.suffix;
+            AtomicReference<NativeRootDetection.Result> nativeResult = new AtomicReference<>(NativeRootDetection.Result.EMPTY);
+            nativeResults.add(nativeResult);
+            // The profile's flags decide which layers a cached result covers
+            RootCheck key = new RootCheck(name, RootCheck.Cost.NATIVE, tier, null).scoped(SCOPE + "." + profile);
+            NativeRootDetection.Result cached = cachedDetail(key, name, NativeRootDetection.Result.class, metrics);
+            if (cached != null) {
+                nativeResult.set(cached);
+                reported.add(key);
+                nativeTtlCached |= tier == RootCheck.Tier.TTL;
+                continue;
+            }
+            // Tier.VOLATILE for the engine, the result is cached here together with its detections
+            RootCheck check = new RootCheck(name, RootCheck.Cost.NATIVE, () -> {
+                NativeRootDetection.Result scan = NativeRootDetection.scan(profile.nativeFlags | tier.nativeFlag,
+                        NativeRootDetection.DEFAULT_PID_BUDGET, nativeTimeoutMs(startNanos));
+                nativeResult.set(scan);
+                boolean positive = scan.magiskDetected || scan.suProcessRunning || !scan.detections.isEmpty();
+                if (scan.complete) {
+                    storeDetail(key, positive, scan);
+                }
+                return positive;
+            }).scoped(SCOPE);
+            tasks.add(check);
+            reported.add(check);
+        }
+
+        RootCheck rootDetectorKey = new RootCheck(ROOT_DETECTOR_CHECK, RootCheck.Cost.FILE_STAT, RootCheck.Tier.TTL, null).scoped(SCOPE);
+        @SuppressWarnings("unchecked")
+        List<RootDetector.Detection> cachedDetections = cachedDetail(rootDetectorKey, ROOT_DETECTOR_CHECK, List.class, metrics);
+        if (cachedDetections != null) {
+            javaDetections.set(cachedDetections);
+            reported.add(rootDetectorKey);
+        } else {
+            // The native TTL tier probes su binaries, Magisk paths and the hosts file too,
+            // but a fresh native scan runs alongside and may stop at the deadline before
+            // reaching them. Only a cached (complete) TTL result lets the Java copies go;
+            // otherwise both run and merge() drops the duplicates.
+            boolean nativeCovered = nativeTtlCached;
+            RootCheck check = new RootCheck(ROOT_DETECTOR_CHECK, RootCheck.Cost.FILE_STAT, () -> {
+                List<RootDetector.Detection> found = rootDetector.runAllChecks(nativeCovered);
+                javaDetections.set(found);
+                // Cached only when complete on its own, it may outlive the native entry
+                if (!nativeCovered) {
+                    storeDetail(rootDetectorKey, !found.isEmpty(), Collections.unmodifiableList(found));
+                }
+                return !found.isEmpty();
+            }).scoped(SCOPE);
+            tasks.add(check);
+            reported.add(check);
+        }
+        if (!NativeRootDetection.isAvailable() && profile.processes) {
+            // The native scan covers running su processes in its /proc walk. PROCESS cost:
+            // up to DEFAULT_PID_BUDGET /proc entries, it starts ahead of the file checks.
+            RootCheck check = new RootCheck("isSuRunning", RootCheck.Cost.PROCESS, DetailedRootScan::isSuProcessRunning).scoped(SCOPE);
+            tasks.add(check);
+            reported.add(check);
+        }
+
+        Map<String, Boolean> outcomes = RootCheckEngine.getInstance().runAll(tasks, cache, metrics, deadlineMs);
+        List<RootDetector.Detection> nativeDetections = new ArrayList<>();
+        boolean nativeRooted = false;
+        for (int i = 0; i < nativeResults.size(); i++) {
+            NativeRootDetection.Result result = nativeResults.get(i).get();
+            if (!result.complete) {
+                metrics.markTimedOut(NATIVE_SCAN_CHECK + RootCheck.Tier.values()[i].suffix, 0);
+            }
+            nativeDetections.addAll(result.detections);
+            nativeRooted |= result.magiskDetected;
+        }
+        ScanMetrics.Summary timings = metrics.finish(reported);
+        List<String> timedOut = new ArrayList<>();
+        for (Map.Entry<String, Boolean> outcome : outcomes.entrySet()) {
+            ScanMetrics.Timing timing = timings.checks.get(outcome.getKey());
+            if (timing != null && timing.timedOut) {
+                timedOut.add(outcome.getKey());
+                Log.d(outcome.getKey(), outcome.getValue() + " (timed out after " + timing.wallMicros + " us)");
+            } else {
+                Log.d(outcome.getKey(), outcome.getValue() + (timing == null || timing.cached ? " (cached)" : " (" + timing.wallMicros + " us)"));
+            }
+        }
+
+        List<RootDetector.Detection> detections = RootDetector.merge(nativeDetections, javaDetections.get());
+        if (detections.isEmpty()) {
+            Log.i(TAG, "No root detected.");
+        }
+        for (RootDetector.Detection detection : detections) {
+            Log.w(TAG, "Root indicator: " +
+                    detection.key + " (" + detection.details + ")");
+        }
+
+        boolean suExists = outcomes.get("suBinaryExists");
+        boolean packagesFound = outcomes.get("rootPackagesFound");
+        boolean buildTags = outcomes.get("testKeys");
+        boolean props = outcomes.get("dangerousProps");
+        boolean paths = outcomes.get("suspiciousPaths");
+        boolean rwPaths = outcomes.get("rwSystemPartition");
+        boolean dangerousApps = outcomes.get("dangerousApps");
+        // False where the profile left RootBeer out
+        boolean isDeviceRooted = Boolean.TRUE.equals(outcomes.get(ROOT_BEER_CHECK));
+        // The Java /proc walk stands in for the native su_process_running detection
+        boolean rootIndicators = anyDetection(detections, ROOT_DETECTIONS)
+                || Boolean.TRUE.equals(outcomes.get("isSuRunning"));
+        boolean tamperIndicators = anyDetection(detections, TAMPER_DETECTIONS);
+
+        Map<String, Boolean> checks = new LinkedHashMap<>();
+        checks.put("suBinaryExists", suExists);
+        checks.put("rootPackagesFound", packagesFound);
+        checks.put("testKeys", buildTags);
+        checks.put("dangerousProps", props);
+        checks.put("suspiciousPaths", paths);
+        checks.put("rwSystemPartition", rwPaths);
+        checks.put("dangerousApps", dangerousApps);
+        if (profile.rootBeer) {
+            checks.put(ROOT_BEER_CHECK, isDeviceRooted);
+        }
+        checks.put("nativeRooted", nativeRooted);
+        checks.put("rootIndicators", rootIndicators);
+        checks.put("tamperIndicators", tamperIndicators);
+
+        boolean isRooted = suExists || packagesFound || buildTags || props || paths || rwPaths || isDeviceRooted
+                || nativeRooted || rootIndicators;
+        int riskScore = calculateRiskScore(suExists, packagesFound, buildTags, props, paths, rwPaths, dangerousApps,
+                isDeviceRooted, nativeRooted, rootIndicators, tamperIndicators);
+        return new Report(checks, detections, isRooted, riskScore, timings, timedOut, profile);
+    }
+
+    // Full result of a check cached by an earlier scan, or null. A hit counts as a cache
+    // hit of the check reported as name.
+    private <T> T cachedDetail(RootCheck key, String name, Class<T> type, ScanMetrics.Scan metrics) {
+        T cached = cache != null ? cache.getDetail(key, type) : null;
+        if (cached != null) {
+            ScanMetrics.getInstance().recordCacheHit(SCOPE + "." + name);
+            metrics.add(name, ScanMetrics.Timing.CACHED);
+        }
+        return cached;
+    }
+
+    // Not from an interrupted run (cancelled or abandoned at the deadline), whose probes
+    // may have answered false
+    private void storeDetail(RootCheck key, boolean positive, Object detail) {
+        if (cache != null && !Thread.currentThread().isInterrupted()) {
+            cache.putDetail(key, positive, detail);
+        }
+    }
+
+    // Time the native scan may take, given the scan began at startNanos; 0 for no limit
+    private int nativeTimeoutMs(long startNanos) {
+        if (deadlineMs <= 0) {
+            return 0;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        // At least 1, 0 would lift the limit
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, deadlineMs - elapsedMs - NATIVE_DEADLINE_MARGIN_MS));
+    }
+
+    // Method 1: Check if SU binary exists (FILE EXISTENCE ONLY)
+    static boolean checkSuExists(ProbeRegistry probes) {
+        return probes.firstExisting(SU_PATHS) != null;
+    }
+
+    // Method 2: Check for root packages (PASSIVE)
+    static boolean checkPackages(ProbeRegistry probes) {
+        return probes.anyPackageInstalled(ROOT_PACKAGES);
+    }
+
+    // Method 3: Check build tags
+    static boolean checkBuildTags(RootEnvironment environment) {
+        String buildTags = environment.buildTags;
+        return buildTags != null && buildTags.contains("test-keys");
+    }
+
+    // Method 4: Check system properties (SAFE METHODS ONLY)
+    static boolean checkProps(RootEnvironment environment) {
+        try {
+            Map<String, String> props = environment.properties.getAll("ro.debuggable", "ro.secure");
+
+            // Check ro.debuggable (should be 0 in production)
+            if ("1".equals(props.get("ro.debuggable"))) {
+                return true;
+            }
+
+            // Check ro.secure (should be 1 in production)  
+            if ("0".equals(props.get("ro.secure"))) {
+                return true;
+            }
+        } catch (Exception e) {
+            // Property access failed
+        }
+        return false;
+    }
+
+    // Method 5: Check for suspicious paths
+    static boolean checkPaths(ProbeRegistry probes) {
+        return probes.firstExisting(SUSPICIOUS_PATHS) != null;
+    }
+
+    // Method 6: Check if system is mounted as RW (SAFE CHECK)
+    static boolean checkRWPaths(MountSnapshot mounts) {
+        return mounts.isMountedReadWrite("/system", false);
+    }
+
+    // Method 7: Check for dangerous apps
+    static boolean checkDangerousApps(ProbeRegistry probes) {
+        return probes.anyPackageInstalled(DANGEROUS_PACKAGES);
+    }
+        
+    // Method 7: Check for running SU
+    // Java fallback of the native process scan: exact comm match, "su" also occurs in
+    // names like surfaceflinger
+    static boolean isSuProcessRunning() {
+        File[] processes = new File("/proc").listFiles();
+        if (processes == null) {
+            return false;
+        }
+        int visited = 0;
+        for (File process : processes) {
+            // Abandoned at the scan deadline
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            String name = process.getName();
+            if (name.isEmpty() || !Character.isDigit(name.charAt(0))) {
+                continue;
+            }
+            if (++visited > NativeRootDetection.DEFAULT_PID_BUDGET) {
+                break;
+            }
+            try (BufferedReader in = new BufferedReader(new FileReader(new File(process, "comm")))) {
+                String comm = in.readLine();
+                if (comm != null && SU_PROCESS_NAMES.contains(comm.trim())) {
+                    Log.d("EnhancedRootDetection", "su process running: " + name + " " + comm);
+                    return true;
+                }
+            } catch (IOException e) {
+                // Process exited or is not visible to this app
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyDetection(List<RootDetector.Detection> detections, Set<String> keys) {
+        for (RootDetector.Detection detection : detections) {
+            if (keys.contains(detection.key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Calculate risk score (0-100)
+    static int calculateRiskScore(boolean suExists, boolean packages, boolean buildTags, 
+                                 boolean props, boolean paths, boolean rwPaths, boolean dangerous, boolean isDeviceRooted, boolean nativeRooted,
+                                 boolean rootIndicators, boolean tamperIndicators) {
+        int score = 0;
+        if (suExists) score += 30;      // High risk
+        if (packages) score += 25;      // High risk  
+        if (buildTags) score += 15;     // Medium risk
+        if (props) score += 10;         // Medium risk
+        if (paths) score += 10;         // Medium risk
+        if (rwPaths) score += 5;        // Low risk
+        if (dangerous) score += 5; 
+        if (isDeviceRooted) score += 30;     // Low risk
+        if (nativeRooted) score += 50;
+        if (rootIndicators) score += 40;
+        if (tamperIndicators) score += 10;
+        
+        return Math.min(score, 100);
+    }
+}
@@ -3,324 +3,342 @@ package com.blemanagerapps;
 
 import android.content.Context;
 import android.content.pm.ApplicationInfo;
-import android.content.pm.PackageManager;
-import android.os.Build;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.Arguments;
-import java.io.File;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.scottyab.rootbeer.RootBeer;
 
-import android.util.Log;
+import static com.blemanagerapps.DetailedRootScan.checkBuildTags;
+import static com.blemanagerapps.DetailedRootScan.checkPackages;
+import static com.blemanagerapps.DetailedRootScan.checkPaths;
+import static com.blemanagerapps.DetailedRootScan.checkProps;
+import static com.blemanagerapps.DetailedRootScan.checkRWPaths;
+import static com.blemanagerapps.DetailedRootScan.checkSuExists;
 
-public class EnhancedRootDetectionModule extends ReactContextBaseJavaModule {
-    private final ReactApplicationContext reactContext;
+public class EnhancedRootDetectionModule extends EnhancedRootDetectionModuleSpec {
+    public static final String NAME = "EnhancedRootDetectionModule";
 
-    // SU binary paths - CHECK ONLY, NEVER EXECUTE
-    private static final String[] SU_PATHS = {
-        "/system/app/Superuser.apk",
-        "/sbin/su",
-        "/system/bin/su", 
-        "/system/xbin/su",
-        "/data/local/xbin/su",
-        "/data/local/bin/su",
-        "/system/sd/xbin/su",
-        "/system/bin/failsafe/su",
-        "/data/local/su",
-        "/su/bin/su",
-        "/system/xbin/daemonsu"
+    private final ReactApplicationContext reactContext;
+    private final RootEnvironment environment;
+    private final CountedRootBeer rootBeer;
+
+    // Static so cached results outlive module instances across bridge reloads
+    private static final RootCheckCache CACHE = new RootCheckCache();
+
+    // Watched as-is in addition to the parents of the probed paths
+    private static final String[] WATCH_DIRS = {
+        "/data/adb",
+        "/data/adb/modules",
+        "/data/local/tmp",
+        "/sbin",
+        "/system/xbin"
     };
 
-    // Root management apps
-    private static final String[] ROOT_PACKAGES = {
-        "com.noshufou.android.su",
-        "com.noshufou.android.su.elite", 
-        "eu.chainfire.supersu",
-        "com.koushikdutta.superuser",
-        "com.thirdparty.superuser",
-        "com.yellowes.su",
-        "com.topjohnwu.magisk",
-        "com.kingroot.kinguser",
-        "com.kingo.root",
-        "com.smedialink.oneclickroot",
-        "com.zhiqupk.root.global",
-        "com.alephzain.framaroot",
-        "com.android.vending.billing.InAppBillingService.COIN",
-        "com.chelpus.lackypatch",
-        "com.ramdroid.appquarantine",
-        "com.topjohnwu.magisk"
-    };
+    public static final String EVENT_PATH_CHANGED = "RootPathChanged";
+    public static final String EVENT_STATUS_CHANGED = "RootStatusChanged";
 
-    // Potentially dangerous apps that modify system
-    private static final String[] DANGEROUS_PACKAGES = {
-        "com.koushikdutta.rommanager",
-        "com.koushikdutta.rommanager.license",
-        "com.dimonvideo.luckypatcher",
-        "com.chelpus.lackypatch",
-        "com.android.vending.billing.InAppBillingService.COIN",
-        "uret.jasi2169.patcher",
-        "com.forpda.luckypatcherinstaller",
-        "com.android.vending.billing.InAppBillingService.LACK"
-    };
+    private static final RootPathWatcher WATCHER = new RootPathWatcher();
+    private static final RootMonitor MONITOR = new RootMonitor();
 
     public EnhancedRootDetectionModule(ReactApplicationContext reactContext) {
         super(reactContext);
         this.reactContext = reactContext;
+        this.environment = RootEnvironment.system(PackageIndex.getInstance(reactContext));
+        this.rootBeer = new CountedRootBeer(new RootBeer(reactContext));
+        PackageIndex.getInstance(reactContext).addListener(CACHE);
+        NativeRootDetection.setStateDirectory(reactContext.getCacheDir());
     }
 
     @Override
     public String getName() {
-        return "EnhancedRootDetectionModule";
+        return NAME;
     }
 
     @ReactMethod
     public void isRooted(Promise promise) {
         try {
-            RootBeer rootBeer = new RootBeer(this.reactContext);
-            boolean rooted = checkSuExists() || 
-                           checkPackages() || 
-                           checkBuildTags() || 
-                           checkProps() ||
-                           checkPaths() ||
-                           checkRWPaths() || rootBeer.isRooted();
+            ProbeRegistry probes = new ProbeRegistry(environment);
+            boolean rooted = RootCheckEngine.getInstance().runUntilPositive(RootCheck.scoped(DetailedRootScan.SCOPE, Arrays.asList(
+                new RootCheck("suBinaryExists", RootCheck.Cost.FILE_STAT, RootCheck.Tier.TTL, () -> checkSuExists(probes)),
+                new RootCheck("rootPackagesFound", RootCheck.Cost.PACKAGE_MANAGER, RootCheck.Tier.TTL, () -> checkPackages(probes)),
+                new RootCheck("testKeys", RootCheck.Cost.FILE_STAT, RootCheck.Tier.BOOT, () -> checkBuildTags(environment)),
+                new RootCheck("dangerousProps", RootCheck.Cost.FILE_STAT, RootCheck.Tier.BOOT, () -> checkProps(environment)),
+                new RootCheck("suspiciousPaths", RootCheck.Cost.FILE_STAT, RootCheck.Tier.TTL, () -> checkPaths(probes)),
+                new RootCheck("rwSystemPartition", RootCheck.Cost.FILE_STAT, RootCheck.Tier.TTL, () -> checkRWPaths(environment.mounts.read())),
+                new RootCheck("isDeviceRootedRootBeer", RootCheck.Cost.PROCESS, RootCheck.Tier.TTL, rootBeer::isRooted)
+            )), CACHE);
             promise.resolve(rooted);
         } catch (Exception e) {
             promise.reject("ROOT_DETECTION_ERROR", e.getMessage());
         }
     }
 
+    // options (may be null): {profile: "quick" | "standard" | "deep" (default), deadlineMs}.
+    // deadlineMs defaults to the profile's budget, so a hung check cannot keep the Promise
+    // pending. Checks still running at the deadline are abandoned and listed in timedOut,
+    // with partial set. The native scan kills its own children (probes, logcat) at the
+    // deadline; RootBeer's Runtime.exec children cannot be reached from here and are left
+    // to finish on their own, on a worker the engine replaces meanwhile.
     @ReactMethod
-    public void getDetailedRootInfo(Promise promise) {
+    public void getDetailedRootInfo(ReadableMap options, Promise promise) {
         try {
-            WritableMap result = Arguments.createMap();
-            WritableMap checks = Arguments.createMap();
-            RootBeer rootBeer = new RootBeer(this.reactContext);
-
-            NativeRootDetection nativeCheck = new NativeRootDetection();
-            boolean nativeRooted = nativeCheck.nativeIsRooted();
-            nativeCheck.checkAllRootPossibility();
-
-            RootDetector rootDetector = new RootDetector(this.reactContext);
-            List<RootDetector.Detection> detections = rootDetector.runAllChecks();
-
-            if (detections.isEmpty()) {
-                Log.i("EnhancedRootDetection", "No root detected.");
-            } else {
-                for (RootDetector.Detection detection : detections) {
-                    Log.w("EnhancedRootDetection", "Root indicator: " +
-                            detection.key + " (" + detection.details + ")");
-                }
-            }
-
-            Log.d("Native Root Detection: ", String.valueOf(nativeRooted));
+            ScanProfile profile = profileOf(options);
+            promise.resolve(runDetailedScan(profile, deadlineOf(options, profile)));
+        } catch (Exception e) {
+            promise.reject("DETAILED_ROOT_ERROR", e.getMessage());
+        }
+    }
 
-            boolean suExists = checkSuExists();
-            Log.d("suExists", String.valueOf(suExists));
+    // ScanOptions of getDetailedRootInfo and startMonitoring: DEEP without a profile
+    private static ScanProfile profileOf(ReadableMap options) {
+        if (options != null && options.hasKey("profile") && !options.isNull("profile")) {
+            return ScanProfile.fromName(options.getString("profile"));
+        }
+        return ScanProfile.DEEP;
+    }
 
-            boolean packagesFound = checkPackages();
-            Log.d("packagesFound", String.valueOf(packagesFound));
+    // The profile's budget without a deadlineMs
+    private static long deadlineOf(ReadableMap options, ScanProfile profile) {
+        if (options != null && options.hasKey("deadlineMs") && !options.isNull("deadlineMs")) {
+            return (long) options.getDouble("deadlineMs");
+        }
+        return profile.budgetMs;
+    }
 
-            boolean buildTags = checkBuildTags();
-            Log.d("buildTags", String.valueOf(buildTags));
+    // Synchronous: returns the last full scan from memory ({isRooted, riskScore, ageMs}),
+    // or null if no scan has finished yet. Cheap enough to gate app startup on.
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getCachedStatus() {
+        RootStatusHolder.Status status = RootStatusHolder.latest();
+        if (status == null) {
+            return null;
+        }
+        WritableMap result = Arguments.createMap();
+        result.putBoolean("isRooted", status.isRooted);
+        result.putInt("riskScore", status.riskScore);
+        result.putDouble("ageMs", status.ageMillis());
+        return result;
+    }
 
-            boolean props = checkProps();
-            Log.d("props", String.valueOf(props));
+    // Called by RootPrewarm before the bridge exists: loads the native library, builds the
+    // package index and caches the BOOT tier, leaving the TTL and volatile checks to the
+    // first scan
+    static void prewarm(Context context) {
+        NativeRootDetection.setStateDirectory(context.getCacheDir());
+        PackageIndex index = PackageIndex.getInstance(context);
+        index.addListener(CACHE);
+        index.preload();
+        DetailedRootScan.prewarm(CACHE, RootEnvironment.system(index));
+    }
 
-            boolean paths = checkPaths();
-            Log.d("paths", String.valueOf(paths));
+    // Full scan shared by getDetailedRootInfo and the background monitor
+    private WritableMap runDetailedScan(ScanProfile profile, long deadlineMs) throws Exception {
+        DetailedRootScan.Report report = new DetailedRootScan(environment, rootBeer::isRooted, CACHE, profile, deadlineMs).run();
 
-            boolean rwPaths = checkRWPaths();
-            Log.d("rwPaths", String.valueOf(rwPaths));
+        WritableMap checks = Arguments.createMap();
+        for (Map.Entry<String, Boolean> check : report.checks.entrySet()) {
+            checks.putBoolean(check.getKey(), check.getValue());
+        }
+        WritableArray detectionList = Arguments.createArray();
+        for (RootDetector.Detection detection : report.detections) {
+            WritableMap item = Arguments.createMap();
+            item.putString("key", detection.key);
+            item.putString("details", detection.details);
+            item.putString("source", detection.source);
+            detectionList.pushMap(item);
+        }
+        WritableArray timedOut = Arguments.createArray();
+        for (String check : report.timedOut) {
+            timedOut.pushString(check);
+        }
 
-            boolean dangerousApps = checkDangerousApps();
-            Log.d("dangerousApps", String.valueOf(dangerousApps));
+        WritableMap result = Arguments.createMap();
+        result.putMap("checks", checks);
+        result.putArray("detections", detectionList);
+        result.putBoolean("isRooted", report.isRooted);
+        result.putInt("riskScore", report.riskScore);
+        result.putMap("timings", toTimingsMap(report.timings));
+        result.putArray("timedOut", timedOut);
+        result.putBoolean("partial", report.partial);
+        result.putString("profile", report.profile.toString());
+        // A partial or reduced clean result could hide a verdict the missing checks would
+        // have changed
+        if (report.isRooted || (!report.partial && report.profile == ScanProfile.DEEP)) {
+            RootStatusHolder.publish(report.isRooted, report.riskScore);
+        }
+        
+        return result;
+    }
 
-            boolean isDeviceRooted = rootBeer.isRooted();
-            Log.d("isDeviceRooted", String.valueOf(isDeviceRooted));
+    // {totalMs, jniCalls, processSpawns, checks: {name: {wallMs, cpuMs, cached, failed, timedOut}}}
+    private static WritableMap toTimingsMap(ScanMetrics.Summary summary) {
+        WritableMap checks = Arguments.createMap();
+        for (Map.Entry<String, ScanMetrics.Timing> entry : summary.checks.entrySet()) {
+            ScanMetrics.Timing timing = entry.getValue();
+            WritableMap item = Arguments.createMap();
+            item.putDouble("wallMs", timing.wallMicros / 1000.0);
+            if (timing.cpuMicros >= 0) {
+                item.putDouble("cpuMs", timing.cpuMicros / 1000.0);
+            } else {
+                item.putNull("cpuMs");
+            }
+            item.putBoolean("cached", timing.cached);
+            item.putBoolean("failed", timing.failed);
+            item.putBoolean("timedOut", timing.timedOut);
+            checks.putMap(entry.getKey(), item);
+        }
 
-            boolean isSuRunning = isSuProcessRunning();
-            Log.d("isSuRunning", String.valueOf(isSuRunning));
+        WritableMap result = Arguments.createMap();
+        result.putDouble("totalMs", summary.wallMicros / 1000.0);
+        result.putDouble("jniCalls", summary.jniCalls);
+        result.putDouble("processSpawns", summary.processSpawns);
+        result.putMap("checks", checks);
+        return result;
+    }
 
-            checks.putBoolean("suBinaryExists", suExists);
-            checks.putBoolean("rootPackagesFound", packagesFound);
-            checks.putBoolean("testKeys", buildTags);
-            checks.putBoolean("dangerousProps", props);
-            checks.putBoolean("suspiciousPaths", paths);
-            checks.putBoolean("rwSystemPartition", rwPaths);
-            checks.putBoolean("dangerousApps", dangerousApps);
-            checks.putBoolean("isDeviceRootedRootBeer", isDeviceRooted);
-            checks.putBoolean("nativeRooted", nativeRooted);
+    // Aggregates since app start. Percentiles cover about the last hour of scans and are
+    // accurate to within 2x (power-of-two buckets), null before the first sample:
+    // {scans, jniCalls, processSpawns, scanMs: {p50, p90, p99},
+    //  checks: {scope.name: {runs, errors, timeouts, cacheHits, lastWallMs, wallMs: {p50, p90, p99}, cpuMs: {...}}}}
+    @ReactMethod
+    public void getScanMetrics(Promise promise) {
+        try {
+            ScanMetrics metrics = ScanMetrics.getInstance();
+            WritableMap checks = Arguments.createMap();
+            for (Map.Entry<String, ScanMetrics.CheckStats> entry : metrics.checks().entrySet()) {
+                ScanMetrics.CheckStats stats = entry.getValue();
+                WritableMap item = Arguments.createMap();
+                item.putDouble("runs", stats.runs());
+                item.putDouble("errors", stats.errors());
+                item.putDouble("timeouts", stats.timeouts());
+                item.putDouble("cacheHits", stats.cacheHits());
+                long lastWall = stats.lastWallMicros();
+                if (lastWall >= 0) {
+                    item.putDouble("lastWallMs", lastWall / 1000.0);
+                } else {
+                    item.putNull("lastWallMs");
+                }
+                item.putMap("wallMs", toPercentiles(stats.wall));
+                item.putMap("cpuMs", toPercentiles(stats.cpu));
+                checks.putMap(entry.getKey(), item);
+            }
 
+            WritableMap result = Arguments.createMap();
+            result.putDouble("scans", metrics.scans());
+            result.putDouble("jniCalls", metrics.jniCalls());
+            result.putDouble("processSpawns", metrics.processSpawns());
+            result.putMap("scanMs", toPercentiles(metrics.scanWall()));
             result.putMap("checks", checks);
-            result.putBoolean("isRooted", suExists || packagesFound || buildTags || props || paths || rwPaths || isDeviceRooted || nativeRooted);
-            result.putInt("riskScore", calculateRiskScore(suExists, packagesFound, buildTags, props, paths, rwPaths, dangerousApps, isDeviceRooted, nativeRooted));
-            
             promise.resolve(result);
         } catch (Exception e) {
-            promise.reject("DETAILED_ROOT_ERROR", e.getMessage());
+            promise.reject("SCAN_METRICS_ERROR", e.getMessage());
         }
     }
 
-    // Method 1: Check if SU binary exists (FILE EXISTENCE ONLY)
-    private boolean checkSuExists() {
-        for (String path : SU_PATHS) {
-            try {
-                File file = new File(path);
-                if (file.exists()) {
-                    return true;
-                }
-            } catch (Exception e) {
-                // File access exception - continue checking
-            }
+    private static WritableMap toPercentiles(LatencyHistogram histogram) {
+        WritableMap result = Arguments.createMap();
+        putPercentile(result, "p50", histogram.percentile(0.5));
+        putPercentile(result, "p90", histogram.percentile(0.9));
+        putPercentile(result, "p99", histogram.percentile(0.99));
+        return result;
+    }
+
+    private static void putPercentile(WritableMap map, String key, long micros) {
+        if (micros >= 0) {
+            map.putDouble(key, micros / 1000.0);
+        } else {
+            map.putNull(key);
         }
-        return false;
     }
 
-    // Method 2: Check for root packages (PASSIVE)
-    private boolean checkPackages() {
-        PackageManager pm = reactContext.getPackageManager();
-        for (String packageName : ROOT_PACKAGES) {
-            try {
-                pm.getPackageInfo(packageName, 0);
-                return true;
-            } catch (PackageManager.NameNotFoundException e) {
-                // Continue
+    // Watches the directories of the probed paths and emits RootPathChanged events
+    // ({kind: "created" | "deleted", path}) until stopWatching. Resolves with the
+    // directories actually watched, some are not readable by an unprivileged app.
+    @ReactMethod
+    public void startWatching(Promise promise) {
+        try {
+            Set<String> dirs = new LinkedHashSet<>(Arrays.asList(WATCH_DIRS));
+            dirs.addAll(RootPathWatcher.parentDirs(Arrays.asList(DetailedRootScan.SU_PATHS)));
+            dirs.addAll(RootPathWatcher.parentDirs(Arrays.asList(DetailedRootScan.SUSPICIOUS_PATHS)));
+
+            List<String> watched = WATCHER.start(dirs, (kind, path) -> {
+                // Anything cached from the filesystem may be stale now
+                CACHE.invalidateTtl();
+                MONITOR.requestScan();
+                WritableMap event = Arguments.createMap();
+                event.putString("kind", kind);
+                event.putString("path", path);
+                emit(EVENT_PATH_CHANGED, event);
+            });
+
+            WritableArray result = Arguments.createArray();
+            for (String dir : watched) {
+                result.pushString(dir);
             }
+            promise.resolve(result);
+        } catch (Exception e) {
+            promise.reject("WATCH_ERROR", e.getMessage());
         }
-        return false;
     }
 
-    // Method 3: Check build tags
-    private boolean checkBuildTags() {
-        String buildTags = Build.TAGS;
-        return buildTags != null && buildTags.contains("test-keys");
+    @ReactMethod
+    public void stopWatching(Promise promise) {
+        WATCHER.stop();
+        promise.resolve(null);
     }
 
-    // Method 4: Check system properties (SAFE METHODS ONLY)
-    private String getSystemProperty(String propName) {
+    // Scans in the background starting at intervalMs, adapting the interval to the results,
+    // and emits RootStatusChanged (same shape as getDetailedRootInfo) when the verdict or
+    // risk score changes. options as for getDetailedRootInfo, applied to every scan.
+    @ReactMethod
+    public void startMonitoring(double intervalMs, ReadableMap options, Promise promise) {
         try {
-            Process process = Runtime.getRuntime().exec("getprop " + propName);
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String line = reader.readLine();
-            reader.close();
-            return line != null ? line : "";
+            ScanProfile profile = profileOf(options);
+            long deadlineMs = deadlineOf(options, profile);
+            MONITOR.start((long) intervalMs, () -> runDetailedScan(profile, deadlineMs), result -> emit(EVENT_STATUS_CHANGED, result));
+            promise.resolve(null);
         } catch (Exception e) {
-            return "";
+            promise.reject("MONITOR_ERROR", e.getMessage());
         }
     }
-    private boolean checkProps() {
-        try {
-            // Check ro.debuggable (should be 0 in production)
-            String debuggable = getSystemProperty("ro.debuggable");
-            if ("1".equals(debuggable)) {
-                return true;
-            }
 
-            // Check ro.secure (should be 1 in production)  
-            String secure = getSystemProperty("ro.secure");
-            if ("0".equals(secure)) {
-                return true;
-            }
-        } catch (Exception e) {
-            // Property access failed
-        }
-        return false;
+    @ReactMethod
+    public void stopMonitoring(Promise promise) {
+        MONITOR.stop();
+        promise.resolve(null);
     }
 
-    // Method 5: Check for suspicious paths
-    private boolean checkPaths() {
-        String[] suspiciousPaths = {
-            "/system/recovery-from-boot.p",
-            "/system/etc/init.d/99SuperSUDaemon",
-            "/dev/com.koushikdutta.superuser.daemon/",
-            "/system/xbin/daemonsu"
-        };
-        
-        for (String path : suspiciousPaths) {
-            try {
-                if (new File(path).exists()) {
-                    return true;
-                }
-            } catch (Exception e) {
-                // Continue
-            }
+    private void emit(String eventName, WritableMap payload) {
+        if (reactContext.hasActiveReactInstance()) {
+            reactContext.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                    .emit(eventName, payload);
         }
-        return false;
     }
 
-    // Method 6: Check if system is mounted as RW (SAFE CHECK)
-    private boolean checkRWPaths() {
-        try {
-            // Try to read mount information
-            Process proc = Runtime.getRuntime().exec("cat /proc/mounts");
-            BufferedReader reader = new BufferedReader(new InputStreamReader(proc.getInputStream()));
-            String line;
-            
-            while ((line = reader.readLine()) != null) {
-                if (line.contains(" /system ") && line.contains("rw")) {
-                    reader.close();
-                    return true;
-                }
-            }
-            reader.close();
-        } catch (Exception e) {
-            // Failed to read mounts
-        }
-        return false;
+    // Required by NativeEventEmitter
+    @ReactMethod
+    public void addListener(String eventName) {
     }
 
-    // Method 7: Check for dangerous apps
-    private boolean checkDangerousApps() {
-        PackageManager pm = reactContext.getPackageManager();
-        for (String packageName : DANGEROUS_PACKAGES) {
-            try {
-                pm.getPackageInfo(packageName, 0);
-                return true;
-            } catch (PackageManager.NameNotFoundException e) {
-                // Continue
-            }
-        }
-        return false;
-    }
-        
-    // Method 7: Check for running SU
-    private boolean isSuProcessRunning() {
-    try {
-        Process process = Runtime.getRuntime().exec("ps");
-        BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        String line;
-        while ((line = in.readLine()) != null) {
-            if (line.contains("su")) return true;
-        }
-        in.close();
-    } catch (Exception e) {
-        // Ignore
+    @ReactMethod
+    public void removeListeners(double count) {
     }
-    return false;
-}
 
-    // Calculate risk score (0-100)
-    private int calculateRiskScore(boolean suExists, boolean packages, boolean buildTags, 
-                                 boolean props, boolean paths, boolean rwPaths, boolean dangerous, boolean isDeviceRooted, boolean nativeRooted) {
-        int score = 0;
-        if (suExists) score += 30;      // High risk
-        if (packages) score += 25;      // High risk  
-        if (buildTags) score += 15;     // Medium risk
-        if (props) score += 10;         // Medium risk
-        if (paths) score += 10;         // Medium risk
-        if (rwPaths) score += 5;        // Low risk
-        if (dangerous) score += 5; 
-        if (isDeviceRooted) score += 30;     // Low risk
-        if (nativeRooted) score += 50;
-        
-        return Math.min(score, 100);
+    @Override
+    public void invalidate() {
+        WATCHER.stop();
+        MONITOR.stop();
+        super.invalidate();
     }
-}
\ No newline at end of file
+}
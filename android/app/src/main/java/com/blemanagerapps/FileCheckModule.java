@@ -1,20 +1,33 @@
 package com.blemanagerapps;
 
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableMap;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FileCheckModule extends FileCheckModuleSpec {
+    public static final String NAME = "FileCheckModule";
+
+    // Lists up to this size are checked inline, larger ones in chunks on the RootCheckEngine pool
+    private static final int PARALLEL_THRESHOLD = 32;
+    private static final int CHUNK_SIZE = 16;
+    // Every chunk reports under one name, so metrics and cost estimates hold a single
+    // entry however many paths callers pass
+    private static final String CHUNK_CHECK = "fileChunk";
 
-public class FileCheckModule extends ReactContextBaseJavaModule {
     public FileCheckModule(ReactApplicationContext reactContext) {
         super(reactContext);
     }
 
     @Override
     public String getName() {
-        return "FileCheckModule";
+        return NAME;
     }
 
     @ReactMethod
@@ -26,4 +39,92 @@ public class FileCheckModule extends ReactContextBaseJavaModule {
             promise.reject("FILE_CHECK_ERROR", e);
         }
     }
-}
\ No newline at end of file
+
+    // Resolves true as soon as one of the paths exists; remaining checks are skipped
+    @ReactMethod
+    public void doesAnyFileExist(ReadableArray filePaths, Promise promise) {
+        try {
+            String[] paths = toPaths(filePaths);
+            if (paths.length <= PARALLEL_THRESHOLD) {
+                promise.resolve(existsAny(paths, 0, paths.length));
+                return;
+            }
+            List<RootCheck> chunks = new ArrayList<>();
+            for (int start = 0; start < paths.length; start += CHUNK_SIZE) {
+                final int from = start;
+                final int to = Math.min(start + CHUNK_SIZE, paths.length);
+                chunks.add(new RootCheck(CHUNK_CHECK, RootCheck.Cost.FILE_STAT,
+                        () -> existsAny(paths, from, to)).scoped(NAME));
+            }
+            promise.resolve(RootCheckEngine.getInstance().runUntilPositive(chunks));
+        } catch (Exception e) {
+            promise.reject("FILE_CHECK_ERROR", e);
+        }
+    }
+
+    // Resolves a { path: boolean } map covering every path
+    @ReactMethod
+    public void doFilesExist(ReadableArray filePaths, Promise promise) {
+        try {
+            String[] paths = toPaths(filePaths);
+            boolean[] exists = new boolean[paths.length];
+            if (paths.length <= PARALLEL_THRESHOLD) {
+                fill(paths, exists, 0, paths.length);
+            } else {
+                List<RootCheck> chunks = new ArrayList<>();
+                for (int start = 0; start < paths.length; start += CHUNK_SIZE) {
+                    final int from = start;
+                    final int to = Math.min(start + CHUNK_SIZE, paths.length);
+                    chunks.add(new RootCheck(CHUNK_CHECK, RootCheck.Cost.FILE_STAT, () -> {
+                        fill(paths, exists, from, to);
+                        return true;
+                    }).scoped(NAME));
+                }
+                // runAll waits for every chunk, which publishes their writes to exists
+                RootCheckEngine.getInstance().runAll(chunks);
+            }
+
+            WritableMap result = Arguments.createMap();
+            for (int i = 0; i < paths.length; i++) {
+                result.putBoolean(paths[i], exists[i]);
+            }
+            promise.resolve(result);
+        } catch (Exception e) {
+            promise.reject("FILE_CHECK_ERROR", e);
+        }
+    }
+
+    private static String[] toPaths(ReadableArray filePaths) {
+        String[] paths = new String[filePaths.size()];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = filePaths.isNull(i) ? "" : filePaths.getString(i);
+        }
+        return paths;
+    }
+
+    private static boolean exists(String path) {
+        try {
+            return !path.isEmpty() && new File(path).exists();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static boolean existsAny(String[] paths, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            if (exists(paths[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void fill(String[] paths, boolean[] exists, int from, int to) {
+        for (int i = from; i < to; i++) {
+            exists[i] = exists(paths[i]);
+        }
+    }
+}
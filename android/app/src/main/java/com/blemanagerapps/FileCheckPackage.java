@@ -1,25 +1,23 @@
 package com.blemanagerapps;
 
-import com.facebook.react.ReactPackage;
+import com.facebook.react.TurboReactPackage;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.uimanager.ViewManager;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
 
-public class FileCheckPackage implements ReactPackage {
+public class FileCheckPackage extends TurboReactPackage {
 
     @Override
-    public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
-        return Collections.emptyList();
+    public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+        return FileCheckModule.NAME.equals(name) ? new FileCheckModule(reactContext) : null;
     }
 
     @Override
-    public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-        List<NativeModule> modules = new ArrayList<>();
-        modules.add(new FileCheckModule(reactContext));
-        return modules;
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+        return () -> Collections.<String, ReactModuleInfo>singletonMap(FileCheckModule.NAME,
+                RootDetectionPackage.moduleInfo(FileCheckModule.NAME, FileCheckModule.class));
     }
-}
\ No newline at end of file
+}
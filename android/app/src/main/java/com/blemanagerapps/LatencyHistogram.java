@@ -0,0 +1,99 @@
+package com.blemanagerapps;
+
+import android.os.SystemClock;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Rolling latency histogram with fixed power-of-two buckets. Samples land in a ring of
+// time slots, so percentiles cover roughly the last SLOTS * slotMillis and old scans age
+// out. Recording is a couple of atomic operations, no locks and no allocation.
+public final class LatencyHistogram {
+    // Bucket 0 holds 0 us, bucket i > 0 holds [2^(i-1), 2^i) us; the last one everything from ~33 s
+    static final int BUCKETS = 27;
+    private static final int SLOTS = 4;
+    public static final long DEFAULT_SLOT_MS = 15 * 60_000;
+
+    private final long slotMillis;
+    private final AtomicLongArray counts = new AtomicLongArray(SLOTS * BUCKETS);
+    // Period (elapsedRealtime / slotMillis) each slot currently counts for
+    private final AtomicLongArray slotPeriods = new AtomicLongArray(SLOTS);
+
+    public LatencyHistogram() {
+        this(DEFAULT_SLOT_MS);
+    }
+
+    public LatencyHistogram(long slotMillis) {
+        this.slotMillis = slotMillis;
+    }
+
+    public void record(long micros) {
+        long period = SystemClock.elapsedRealtime() / slotMillis;
+        int slot = (int) (period % SLOTS);
+        long seen = slotPeriods.get(slot);
+        // First sample of a new period clears what the slot held SLOTS periods ago. A sample
+        // recorded concurrently with the reset may be lost, which a histogram can live with.
+        if (seen != period && slotPeriods.compareAndSet(slot, seen, period)) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(slot * BUCKETS + i, 0);
+            }
+        }
+        counts.incrementAndGet(slot * BUCKETS + bucketOf(micros));
+    }
+
+    // Samples in the window
+    public long count() {
+        long total = 0;
+        for (long n : snapshot()) {
+            total += n;
+        }
+        return total;
+    }
+
+    // Upper bound in microseconds of the bucket holding the q-th quantile (0 < q <= 1),
+    // -1 without samples. Power-of-two buckets make this accurate to within 2x.
+    public long percentile(double q) {
+        long[] buckets = snapshot();
+        long total = 0;
+        for (long n : buckets) {
+            total += n;
+        }
+        if (total == 0) {
+            return -1;
+        }
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= Math.max(rank, 1)) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    // Counts per bucket over the slots still inside the window
+    private long[] snapshot() {
+        long current = SystemClock.elapsedRealtime() / slotMillis;
+        long[] buckets = new long[BUCKETS];
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (current - slotPeriods.get(slot) >= SLOTS) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] += counts.get(slot * BUCKETS + i);
+            }
+        }
+        return buckets;
+    }
+
+    static int bucketOf(long micros) {
+        if (micros <= 0) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket == 0 ? 0 : (1L << bucket) - 1;
+    }
+}
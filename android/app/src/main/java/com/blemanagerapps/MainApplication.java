@@ -69,5 +69,9 @@ public class MainApplication extends Application implements ReactApplication {
       ReactNativeFlipper.initializeFlipper(this, getReactNativeHost().getReactInstanceManager());
     }
     OkHttpClientProvider.setOkHttpClientFactory(new SSLPinningFactory());
+    if (BuildConfig.ROOT_PREWARM_ENABLED) {
+      // Runs on a background-priority thread, onCreate does not wait for it
+      RootPrewarm.start(this);
+    }
   }
 }
@@ -0,0 +1,108 @@
+package com.blemanagerapps;
+
+import android.system.Os;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Java counterpart of mount_table.c: /proc/self/mountinfo read once, queried by every mount check of a scan
+public class MountSnapshot {
+
+    public static class Entry {
+        public final String mountPoint;
+        public final String fsType;
+        public final String source;
+        public final String options;
+        public final String superOptions;
+
+        Entry(String mountPoint, String fsType, String source, String options, String superOptions) {
+            this.mountPoint = mountPoint;
+            this.fsType = fsType;
+            this.source = source;
+            this.options = options;
+            this.superOptions = superOptions;
+        }
+
+        // Per-mount options only; superblock options are usually rw even for ro mounts
+        public boolean hasOption(String option) {
+            for (String o : options.split(",")) {
+                if (o.equals(option)) return true;
+            }
+            return false;
+        }
+    }
+
+    public final List<Entry> entries;
+    // Target of /proc/self/ns/mnt, e.g. "mnt:[4026531840]", empty if unreadable
+    public final String namespace;
+
+    private MountSnapshot(List<Entry> entries, String namespace) {
+        this.entries = entries;
+        this.namespace = namespace;
+    }
+
+    public static MountSnapshot read() {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader("/proc/self/mountinfo"), 16384)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            // Mount table unreadable, checks see an empty snapshot
+        }
+
+        String namespace = "";
+        try {
+            namespace = Os.readlink("/proc/self/ns/mnt");
+        } catch (Exception e) {
+            // Namespace link not readable
+        }
+        return parse(lines, namespace);
+    }
+
+    // Snapshot of the given mountinfo lines, also used for fixtures
+    public static MountSnapshot parse(List<String> lines, String namespace) {
+        List<Entry> entries = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            Entry entry = parse(line);
+            if (entry != null) entries.add(entry);
+        }
+        return new MountSnapshot(Collections.unmodifiableList(entries), namespace);
+    }
+
+    // mountinfo line: id parent major:minor root mount_point options [optional...] - fs_type source super_options
+    private static Entry parse(String line) {
+        String[] fields = line.split(" ");
+        int separator = -1;
+        for (int i = 6; i < fields.length; i++) {
+            if ("-".equals(fields[i])) {
+                separator = i;
+                break;
+            }
+        }
+        if (separator < 0 || separator + 1 >= fields.length) return null;
+        return new Entry(
+                fields[4],
+                fields[separator + 1],
+                separator + 2 < fields.length ? fields[separator + 2] : "",
+                fields[5],
+                separator + 3 < fields.length ? fields[separator + 3] : "");
+    }
+
+    // True if the mount point itself, or anything mounted below it, is mounted read-write
+    public boolean isMountedReadWrite(String mountPoint, boolean includeChildren) {
+        for (Entry entry : entries) {
+            boolean matches = entry.mountPoint.equals(mountPoint)
+                    || (includeChildren && entry.mountPoint.startsWith(mountPoint + "/"));
+            if (matches && entry.hasOption("rw")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,16 +2,135 @@ package com.blemanagerapps;
 
 import android.util.Log;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class NativeRootDetection {
+    // Flags of runScan, keep in sync with native_scan.h
+    public static final int SCAN_MAGISK = 0x1;
+    public static final int SCAN_DETECTIONS = 0x2;
+    public static final int SCAN_PROCESSES = 0x4;
+    // With SCAN_MAGISK, also the layers that start child processes, read logcat or need the /proc walk
+    public static final int SCAN_DEEP = 0x8;
+    public static final int SCAN_ALL = SCAN_MAGISK | SCAN_DETECTIONS | SCAN_PROCESSES | SCAN_DEEP;
+    // Restrict a scan to the checks of one RootCheck.Tier; without any, every tier runs
+    public static final int TIER_BOOT = 0x10;
+    public static final int TIER_TTL = 0x20;
+    public static final int TIER_VOLATILE = 0x40;
+
+    // Processes visited by the single /proc walk of a scan
+    public static final int DEFAULT_PID_BUDGET = 2048;
+
+    private static final int VERDICT_MAGISK = 0x1;
+    private static final int VERDICT_SU_PROCESS = 0x2;
+    private static final int VERDICT_INCOMPLETE = 0x4;
+    // Verdict byte and process spawn count, keep in sync with native_scan.h
+    private static final int HEADER_SIZE = 2;
+
+    private static final boolean available;
+
     static {
+        boolean loaded;
         try {
-            System.loadLibrary("native_root_detection");
             System.loadLibrary("root_detector");
+            loaded = true;
         } catch (UnsatisfiedLinkError e) {
             e.printStackTrace();
+            loaded = false;
         }
+        available = loaded;
     }
 
-    public native boolean nativeIsRooted();
-    public native boolean checkAllRootPossibility();
+    public static class Result {
+        public static final Result EMPTY = new Result(false, false, 0, true, Collections.<RootDetector.Detection>emptyList());
+
+        public final boolean magiskDetected;
+        public final boolean suProcessRunning;
+        // Child processes the scan started (isolated probes, logcat)
+        public final int processSpawns;
+        // False if the timeout stopped the scan before every selected check had run
+        public final boolean complete;
+        public final List<RootDetector.Detection> detections;
+
+        Result(boolean magiskDetected, boolean suProcessRunning, int processSpawns, boolean complete,
+               List<RootDetector.Detection> detections) {
+            this.magiskDetected = magiskDetected;
+            this.suProcessRunning = suProcessRunning;
+            this.processSpawns = processSpawns;
+            this.complete = complete;
+            this.detections = detections;
+        }
+    }
+
+    // False if the native library failed to load; Java layers must then run their own copies of the native checks
+    public static boolean isAvailable() {
+        return available;
+    }
+
+    // Packed result, see native_scan.c
+    private static native byte[] runScan(int flags, int pidBudget, int timeoutMs);
+    private static native void setStateDir(String dir);
+
+    // Directory where native checks persist state between scans (e.g. the logcat cursor)
+    public static void setStateDirectory(File dir) {
+        if (available) {
+            ScanMetrics.getInstance().countJniCall();
+            setStateDir(dir.getAbsolutePath());
+        }
+    }
+
+    public static Result scan(int flags) {
+        return scan(flags, DEFAULT_PID_BUDGET);
+    }
+
+    public static Result scan(int flags, int pidBudget) {
+        return scan(flags, pidBudget, 0);
+    }
+
+    // Runs the selected native checks in a single JNI call. With timeoutMs > 0 the scan
+    // skips what is left once that much time has passed and kills child processes still
+    // running then; the result only holds what was found until that point.
+    public static Result scan(int flags, int pidBudget, int timeoutMs) {
+        if (!available) {
+            return Result.EMPTY;
+        }
+        ScanMetrics.getInstance().countJniCall();
+        byte[] packed = runScan(flags, pidBudget, timeoutMs);
+        if (packed == null || packed.length < HEADER_SIZE) {
+            Log.w("NativeRootDetection", "runScan returned no results");
+            return Result.EMPTY;
+        }
+        Result result = decode(packed);
+        ScanMetrics.getInstance().countProcessSpawns(result.processSpawns);
+        return result;
+    }
+
+    static Result decode(byte[] packed) {
+        List<RootDetector.Detection> detections = new ArrayList<>();
+        int pos = HEADER_SIZE;
+        while (pos < packed.length) {
+            int keyEnd = indexOfNul(packed, pos);
+            int detailsEnd = indexOfNul(packed, keyEnd + 1);
+            if (detailsEnd >= packed.length) {
+                break;
+            }
+            String key = new String(packed, pos, keyEnd - pos, StandardCharsets.UTF_8);
+            String details = new String(packed, keyEnd + 1, detailsEnd - keyEnd - 1, StandardCharsets.UTF_8);
+            detections.add(new RootDetector.Detection(key, details, RootDetector.Detection.SOURCE_NATIVE));
+            pos = detailsEnd + 1;
+        }
+        return new Result((packed[0] & VERDICT_MAGISK) != 0, (packed[0] & VERDICT_SU_PROCESS) != 0,
+                packed[1] & 0xff, (packed[0] & VERDICT_INCOMPLETE) == 0, detections);
+    }
+
+    private static int indexOfNul(byte[] bytes, int from) {
+        int i = from;
+        while (i < bytes.length && bytes[i] != 0) {
+            i++;
+        }
+        return i;
+    }
 }
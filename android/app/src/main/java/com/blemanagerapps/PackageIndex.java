@@ -0,0 +1,155 @@
+package com.blemanagerapps;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Installed package names fetched with a single getInstalledPackages call and kept
+// until a package is added, removed or replaced. Membership tests are O(1) and avoid
+// the Binder round-trip plus NameNotFoundException of getPackageInfo misses.
+public class PackageIndex implements RootEnvironment.Packages {
+    private static final String TAG = "PackageIndex";
+    // After a failed listing, lookups go per package for this long or until the next
+    // package broadcast, whichever comes first
+    static final long FAILURE_BACKOFF_MS = 60_000;
+
+    public interface Listener {
+        void onPackagesChanged();
+    }
+
+    private static PackageIndex instance;
+
+    private final Context context;
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Set<String> installed;
+    // Bumped on every package broadcast so a listing that raced with a change is not kept
+    private final AtomicInteger generation = new AtomicInteger();
+    // elapsedRealtime before which a failed listing is not retried, 0 if none failed
+    private volatile long retryAt;
+
+    private PackageIndex(Context context) {
+        this.context = context;
+        registerReceiver();
+    }
+
+    public static synchronized PackageIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new PackageIndex(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public boolean contains(String packageName) {
+        Set<String> snapshot = installed;
+        if (snapshot == null && !backingOff()) {
+            snapshot = load();
+        }
+        if (snapshot != null) {
+            return snapshot.contains(packageName);
+        }
+        // Listing failed (e.g. transaction too large), fall back to a direct lookup
+        try {
+            context.getPackageManager().getPackageInfo(packageName, 0);
+            return true;
+        } catch (PackageManager.NameNotFoundException e) {
+            return false;
+        }
+    }
+
+    // Builds the index ahead of the first lookup
+    public void preload() {
+        if (installed == null) {
+            load();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        installed = null;
+        retryAt = 0;
+        for (Listener listener : listeners) {
+            listener.onPackagesChanged();
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private boolean backingOff() {
+        return retryAt != 0 && SystemClock.elapsedRealtime() < retryAt;
+    }
+
+    private synchronized Set<String> load() {
+        // Callers queued behind a failing listing do not repeat it
+        if (installed != null || backingOff()) {
+            return installed;
+        }
+        int startGeneration = generation.get();
+        try {
+            List<PackageInfo> packages = context.getPackageManager().getInstalledPackages(0);
+            Set<String> names = new HashSet<>(packages.size() * 2);
+            for (PackageInfo info : packages) {
+                names.add(info.packageName);
+            }
+            Set<String> snapshot = Collections.unmodifiableSet(names);
+            if (generation.get() == startGeneration) {
+                installed = snapshot;
+            }
+            Log.d(TAG, "Indexed " + names.size() + " packages");
+            return snapshot;
+        } catch (RuntimeException e) {
+            if (generation.get() == startGeneration) {
+                retryAt = SystemClock.elapsedRealtime() + FAILURE_BACKOFF_MS;
+            }
+            Log.w(TAG, "getInstalledPackages failed, using per-package lookups for "
+                    + FAILURE_BACKOFF_MS + " ms", e);
+        }
+        return installed;
+    }
+
+    private void registerReceiver() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addDataScheme("package");
+
+        BroadcastReceiver receiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context c, Intent intent) {
+                Log.d(TAG, "Package change (" + intent.getAction() + "), invalidating index");
+                invalidate();
+            }
+        };
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+                // Package broadcasts are protected system broadcasts, still delivered to non-exported receivers
+                context.registerReceiver(receiver, filter, Context.RECEIVER_NOT_EXPORTED);
+            } else {
+                context.registerReceiver(receiver, filter);
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Could not watch package changes, index will not be invalidated", e);
+        }
+    }
+}
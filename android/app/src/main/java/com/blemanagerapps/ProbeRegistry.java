@@ -0,0 +1,99 @@
+package com.blemanagerapps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+// Results of the path and package probes of one scan. Modules keep their own lists
+// (they define each module's output keys), but every distinct path is probed only
+// once per scan, even when several checks run in parallel. Package lookups go to the
+// shared PackageIndex.
+public class ProbeRegistry {
+    private final RootEnvironment.Files fileSource;
+    private final RootEnvironment.Packages packageSource;
+    private final ConcurrentMap<String, FutureTask<Boolean>> files = new ConcurrentHashMap<>();
+
+    public ProbeRegistry(PackageIndex packageIndex) {
+        this(RootEnvironment.SYSTEM_FILES, packageIndex);
+    }
+
+    public ProbeRegistry(RootEnvironment environment) {
+        this(environment.files, environment.packages);
+    }
+
+    public ProbeRegistry(RootEnvironment.Files fileSource, RootEnvironment.Packages packageSource) {
+        this.fileSource = fileSource;
+        this.packageSource = packageSource;
+    }
+
+    public boolean fileExists(String path) {
+        return probe(files, path, () -> fileSource.exists(path));
+    }
+
+    // Not memoized, only a few checks look beyond existence
+    public boolean canRead(String path) {
+        return fileSource.canRead(path);
+    }
+
+    public long fileLength(String path) {
+        return fileSource.length(path);
+    }
+
+    // First path of the list that exists, or null
+    public String firstExisting(String... paths) {
+        for (String path : paths) {
+            if (fileExists(path)) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    public boolean isPackageInstalled(String packageName) {
+        return packageSource.contains(packageName);
+    }
+
+    public boolean anyPackageInstalled(String... packageNames) {
+        for (String packageName : packageNames) {
+            if (isPackageInstalled(packageName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<String> installedPackages(String... packageNames) {
+        List<String> installed = new ArrayList<>();
+        for (String packageName : packageNames) {
+            if (isPackageInstalled(packageName)) {
+                installed.add(packageName);
+            }
+        }
+        return installed;
+    }
+
+    // The first caller for a key runs the probe, concurrent callers wait for its result
+    private static boolean probe(ConcurrentMap<String, FutureTask<Boolean>> results, String key, Callable<Boolean> probe) {
+        FutureTask<Boolean> task = results.get(key);
+        if (task == null) {
+            FutureTask<Boolean> created = new FutureTask<>(probe);
+            task = results.putIfAbsent(key, created);
+            if (task == null) {
+                task = created;
+                created.run();
+            }
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.blemanagerapps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+public class RootCheck {
+
+    // Rough cost of a check, used by RootCheckEngine until it has measured the check itself
+    public enum Cost {
+        FILE_STAT(200),
+        PACKAGE_MANAGER(2_000),
+        PROCESS(20_000),
+        NATIVE(50_000);
+
+        public final long expectedMicros;
+
+        Cost(long expectedMicros) {
+            this.expectedMicros = expectedMicros;
+        }
+    }
+
+    // How long a result stays valid, used by RootCheckCache
+    public enum Tier {
+        BOOT("Boot", NativeRootDetection.TIER_BOOT),          // cannot change without a reboot (build tags, ro.* properties)
+        TTL("Ttl", NativeRootDetection.TIER_TTL),             // filesystem and package state, cached for a while and dropped on package changes
+        VOLATILE("Volatile", NativeRootDetection.TIER_VOLATILE); // process state (maps, running processes), always recomputed
+
+        // Names the per-tier part of a check, e.g. nativeScanBoot
+        public final String suffix;
+        // Selects the native checks of this tier (NativeRootDetection.scan)
+        public final int nativeFlag;
+
+        Tier(String suffix, int nativeFlag) {
+            this.suffix = suffix;
+            this.nativeFlag = nativeFlag;
+        }
+    }
+
+    public final String name;
+    // Identifies the check across scans (cost estimates, cache entries): the name within
+    // the owning module's scope, so two modules' suBinaryExists checks stay apart
+    public final String key;
+    public final Cost cost;
+    public final Tier tier;
+    private final Callable<Boolean> probe;
+
+    public RootCheck(String name, Cost cost, Callable<Boolean> probe) {
+        this(name, cost, Tier.VOLATILE, probe);
+    }
+
+    public RootCheck(String name, Cost cost, Tier tier, Callable<Boolean> probe) {
+        this(name, name, cost, tier, probe);
+    }
+
+    private RootCheck(String key, String name, Cost cost, Tier tier, Callable<Boolean> probe) {
+        this.key = key;
+        this.name = name;
+        this.cost = cost;
+        this.tier = tier;
+        this.probe = probe;
+    }
+
+    // The same check keyed as scope.name
+    public RootCheck scoped(String scope) {
+        return new RootCheck(scope + "." + name, name, cost, tier, probe);
+    }
+
+    public static List<RootCheck> scoped(String scope, List<RootCheck> checks) {
+        List<RootCheck> scoped = new ArrayList<>(checks.size());
+        for (RootCheck check : checks) {
+            scoped.add(check.scoped(scope));
+        }
+        return scoped;
+    }
+
+    public boolean run() throws Exception {
+        Boolean result = probe.call();
+        return result != null && result;
+    }
+}
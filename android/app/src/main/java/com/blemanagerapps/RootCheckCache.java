@@ -0,0 +1,117 @@
+package com.blemanagerapps;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Check results kept between scans according to each check's tier
+public class RootCheckCache implements PackageIndex.Listener {
+    private static final String TAG = "RootCheckCache";
+    public static final long DEFAULT_TTL_MS = 60_000;
+
+    private static class Entry {
+        final RootCheck.Tier tier;
+        final boolean value;
+        // Full result of checks that report more than a verdict, null otherwise
+        final Object detail;
+        final long storedAt;
+
+        Entry(RootCheck.Tier tier, boolean value, Object detail, long storedAt) {
+            this.tier = tier;
+            this.value = value;
+            this.detail = detail;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final long ttlMs;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public RootCheckCache() {
+        this(DEFAULT_TTL_MS);
+    }
+
+    public RootCheckCache(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    // Cached result of the check, or null if it has to run
+    public Boolean get(RootCheck check) {
+        Entry entry = valid(check);
+        return entry != null ? entry.value : null;
+    }
+
+    public void put(RootCheck check, boolean value) {
+        put(check, value, null);
+    }
+
+    // Cached full result stored with putDetail, or null if the check has to run
+    public <T> T getDetail(RootCheck check, Class<T> type) {
+        Entry entry = valid(check);
+        return entry != null && type.isInstance(entry.detail) ? type.cast(entry.detail) : null;
+    }
+
+    // For checks whose callers need more than the verdict (the native scan's detections)
+    public void putDetail(RootCheck check, boolean value, Object detail) {
+        put(check, value, detail);
+    }
+
+    private void put(RootCheck check, boolean value, Object detail) {
+        if (check.tier != RootCheck.Tier.VOLATILE) {
+            entries.put(check.key, new Entry(check.tier, value, detail, SystemClock.elapsedRealtime()));
+        }
+    }
+
+    private Entry valid(RootCheck check) {
+        if (check.tier == RootCheck.Tier.VOLATILE) {
+            return null;
+        }
+        Entry entry = entries.get(check.key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.tier == RootCheck.Tier.TTL && SystemClock.elapsedRealtime() - entry.storedAt > ttlMs) {
+            entries.remove(check.key);
+            return null;
+        }
+        return entry;
+    }
+
+    // Runs the checks without a valid entry on the calling thread and stores their results.
+    // Used for warm-up, a failing check is left for the next scan to retry.
+    public void warm(List<RootCheck> checks) {
+        for (RootCheck check : checks) {
+            if (get(check) != null) {
+                continue;
+            }
+            try {
+                put(check, check.run());
+            } catch (Exception e) {
+                Log.w(TAG, "Warm-up of " + check.name + " failed", e);
+            }
+        }
+    }
+
+    // Drops filesystem and package results, boot-invariant ones stay
+    public void invalidateTtl() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().tier == RootCheck.Tier.TTL) {
+                it.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public void onPackagesChanged() {
+        invalidateTtl();
+    }
+}
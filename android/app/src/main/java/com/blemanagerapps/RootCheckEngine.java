@@ -0,0 +1,314 @@
+package com.blemanagerapps;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RootCheckEngine {
+    private static final String TAG = "RootCheckEngine";
+
+    // Low-end devices have 4 slow cores, most checks block on I/O or child processes
+    private static final int POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final RootCheckEngine INSTANCE = new RootCheckEngine();
+
+    private final ThreadPoolExecutor executor;
+    // Workers held by checks that missed their deadline and are still running
+    private int abandonedWorkers;
+    private final ScanMetrics metrics = ScanMetrics.getInstance();
+    // Moving average of each check's wall time, keyed by RootCheck.key
+    private final Map<String, Long> measuredMicros = new ConcurrentHashMap<>();
+
+    private RootCheckEngine() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                POOL_SIZE, POOL_SIZE,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new CheckThreadFactory());
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    public static RootCheckEngine getInstance() {
+        return INSTANCE;
+    }
+
+    public Map<String, Boolean> runAll(List<RootCheck> checks) {
+        return runAll(checks, null);
+    }
+
+    public Map<String, Boolean> runAll(List<RootCheck> checks, RootCheckCache cache) {
+        return runAll(checks, cache, null);
+    }
+
+    public Map<String, Boolean> runAll(List<RootCheck> checks, RootCheckCache cache, ScanMetrics.Scan scan) {
+        return runAll(checks, cache, scan, 0);
+    }
+
+    // Runs every check on the worker pool and returns name -> result in the order given.
+    // A check that throws is reported as negative. Checks with a valid entry in cache
+    // (may be null) are not run again. scan (may be null) receives each check's timing.
+    // With timeoutMs > 0 the call returns within about timeoutMs: checks still running
+    // then are interrupted, reported as negative and marked timed out in scan.
+    public Map<String, Boolean> runAll(List<RootCheck> checks, RootCheckCache cache, ScanMetrics.Scan scan, long timeoutMs) {
+        long deadlineNanos = timeoutMs > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs) : 0;
+        // Start the most expensive checks first so total latency tracks the slowest check
+        List<RootCheck> ordered = sortedByCost(checks);
+        Collections.reverse(ordered);
+
+        Map<RootCheck, TimedCheck> submitted = new LinkedHashMap<>();
+        Map<String, Boolean> cached = new LinkedHashMap<>();
+        for (RootCheck check : ordered) {
+            Boolean hit = cache != null ? cache.get(check) : null;
+            if (hit != null) {
+                cached.put(check.name, hit);
+                metrics.recordCacheHit(check.key);
+                if (scan != null) {
+                    scan.add(check.name, ScanMetrics.Timing.CACHED);
+                }
+            } else {
+                TimedCheck task = new TimedCheck(check, cache, scan);
+                task.future = executor.submit(task);
+                submitted.put(check, task);
+            }
+        }
+
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        for (RootCheck check : checks) {
+            Boolean hit = cached.get(check.name);
+            results.put(check.name, hit != null ? hit : await(submitted.get(check), deadlineNanos));
+        }
+        return results;
+    }
+
+    public boolean runUntilPositive(List<RootCheck> checks) {
+        return runUntilPositive(checks, null);
+    }
+
+    // Verdict-only mode: cheapest checks start first and everything still outstanding
+    // is cancelled as soon as one check comes back positive.
+    public boolean runUntilPositive(List<RootCheck> checks, RootCheckCache cache) {
+        List<RootCheck> pending = new ArrayList<>();
+        for (RootCheck check : checks) {
+            Boolean hit = cache != null ? cache.get(check) : null;
+            if (hit == null) {
+                pending.add(check);
+                continue;
+            }
+            metrics.recordCacheHit(check.key);
+            if (hit) {
+                return true;
+            }
+        }
+
+        ExecutorCompletionService<Boolean> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (RootCheck check : sortedByCost(pending)) {
+            futures.add(completion.submit(new TimedCheck(check, cache, null)));
+        }
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    if (completion.take().get()) {
+                        return true;
+                    }
+                } catch (ExecutionException e) {
+                    Log.w(TAG, "Check failed in verdict mode", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Future<Boolean> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return false;
+    }
+
+    private List<RootCheck> sortedByCost(List<RootCheck> checks) {
+        List<RootCheck> sorted = new ArrayList<>(checks);
+        Collections.sort(sorted, (a, b) -> Long.compare(expectedMicros(a), expectedMicros(b)));
+        return sorted;
+    }
+
+    private long expectedMicros(RootCheck check) {
+        Long measured = measuredMicros.get(check.key);
+        return measured != null ? measured : check.cost.expectedMicros;
+    }
+
+    // One submission of a check. state goes QUEUED -> RUNNING -> DONE, or RUNNING ->
+    // ABANDONED when the caller stops waiting while the check still holds its worker.
+    private class TimedCheck implements Callable<Boolean> {
+        static final int QUEUED = 0;
+        static final int RUNNING = 1;
+        static final int DONE = 2;
+        static final int ABANDONED = 3;
+
+        final RootCheck check;
+        final RootCheckCache cache;
+        final ScanMetrics.Scan scan;
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+        volatile long startNanos;
+        Future<Boolean> future;
+
+        TimedCheck(RootCheck check, RootCheckCache cache, ScanMetrics.Scan scan) {
+            this.check = check;
+            this.cache = cache;
+            this.scan = scan;
+        }
+
+        @Override
+        public Boolean call() throws Exception {
+            startNanos = System.nanoTime();
+            state.set(RUNNING);
+            try {
+                return run();
+            } finally {
+                if (!state.compareAndSet(RUNNING, DONE)) {
+                    releaseWorker();
+                }
+            }
+        }
+
+        private boolean run() throws Exception {
+            long start = startNanos;
+            long cpuStart = ScanMetrics.threadCpuMicros();
+            boolean result;
+            try {
+                result = check.run();
+            } catch (Exception e) {
+                // A check cancelled by verdict mode or a deadline has not failed
+                if (!(e instanceof InterruptedException) && !Thread.currentThread().isInterrupted()) {
+                    measured(check, start, cpuStart, true, scan);
+                }
+                throw e;
+            }
+            // Only completed runs are recorded, a cancelled check would look cheaper than it is.
+            // A cancelled or abandoned check has been interrupted, and probes answer false
+            // once interrupted (ProbeRegistry, the /proc walk), so its result may be a false
+            // negative that must not reach the cache either.
+            if (Thread.currentThread().isInterrupted() || state.get() != RUNNING) {
+                return result;
+            }
+            record(check, measured(check, start, cpuStart, false, scan));
+            if (cache != null) {
+                cache.put(check, result);
+            }
+            return result;
+        }
+
+        // Wall time so far, 0 if the check never left the queue
+        long elapsedMicros() {
+            return state.get() == QUEUED ? 0 : TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        }
+    }
+
+    // Reports the run to ScanMetrics and returns its wall time in microseconds
+    private long measured(RootCheck check, long startNanos, long cpuStartMicros, boolean failed, ScanMetrics.Scan scan) {
+        long wallMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        long cpuMicros = cpuStartMicros >= 0 ? ScanMetrics.threadCpuMicros() - cpuStartMicros : -1;
+        metrics.recordRun(check.key, wallMicros, cpuMicros, failed);
+        if (scan != null) {
+            scan.add(check.name, new ScanMetrics.Timing(wallMicros, cpuMicros, false, failed, false));
+        }
+        return wallMicros;
+    }
+
+    private void record(RootCheck check, long micros) {
+        // Weight the latest sample by 1/4 so one slow run does not reorder everything.
+        // Two workers can finish the same check at once; retry until the update applies
+        // to the value it was computed from (ConcurrentHashMap.merge needs API 24).
+        while (true) {
+            Long previous = measuredMicros.putIfAbsent(check.key, micros);
+            if (previous == null || measuredMicros.replace(check.key, previous, (previous * 3 + micros) / 4)) {
+                return;
+            }
+        }
+    }
+
+    // deadlineNanos 0 waits for as long as the check takes
+    private boolean await(TimedCheck task, long deadlineNanos) {
+        Future<Boolean> future = task.future;
+        try {
+            if (deadlineNanos == 0) {
+                return future.get();
+            }
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (!future.cancel(true)) {
+                // Completed between the timeout and the cancel
+                return await(task, 0);
+            }
+            long wallMicros = task.elapsedMicros();
+            // Interrupted, but native code, blocking I/O and Runtime.exec (RootBeer) ignore that
+            if (task.state.compareAndSet(TimedCheck.RUNNING, TimedCheck.ABANDONED)) {
+                growPool();
+            }
+            Log.w(TAG, "Check " + task.check.name + " missed the deadline after " + wallMicros + " us");
+            if (task.scan != null) {
+                task.scan.markTimedOut(task.check.name, wallMicros);
+            } else {
+                metrics.recordTimeout(task.check.key);
+            }
+        } catch (ExecutionException e) {
+            Log.w(TAG, "Check " + task.check.name + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    // An abandoned check keeps its worker until it returns by itself. Each one gets a
+    // replacement thread (at most POOL_SIZE extra) so later scans do not queue behind it.
+    private synchronized void growPool() {
+        abandonedWorkers++;
+        resizePool();
+    }
+
+    private synchronized void releaseWorker() {
+        abandonedWorkers--;
+        resizePool();
+    }
+
+    private void resizePool() {
+        int size = POOL_SIZE + Math.min(abandonedWorkers, POOL_SIZE);
+        // The core size may never exceed the maximum, not even in between
+        if (size > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(size);
+            executor.setCorePoolSize(size);
+        } else {
+            executor.setCorePoolSize(size);
+            executor.setMaximumPoolSize(size);
+        }
+    }
+
+    private static class CheckThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "RootCheck-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
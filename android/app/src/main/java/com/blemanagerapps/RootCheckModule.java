@@ -2,12 +2,13 @@
 package com.blemanagerapps;
 
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.Promise;
 import com.scottyab.rootbeer.RootBeer;
 
-public class RootCheckModule extends ReactContextBaseJavaModule {
+public class RootCheckModule extends RootCheckModuleSpec {
+   public static final String NAME = "RootCheckModule";
+
 
    public RootCheckModule(ReactApplicationContext reactContext) {
        super(reactContext);
@@ -15,7 +16,7 @@ public class RootCheckModule extends ReactContextBaseJavaModule {
 
    @Override
    public String getName() {
-       return "RootCheckModule";
+       return NAME;
    }
 
    @ReactMethod
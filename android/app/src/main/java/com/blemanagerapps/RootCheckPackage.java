@@ -1,24 +1,22 @@
 package com.blemanagerapps;
 
-import com.facebook.react.ReactPackage;
+import com.facebook.react.TurboReactPackage;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.uimanager.ViewManager;
-import java.util.ArrayList;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
 import java.util.Collections;
-import java.util.List;
 
-public class RootCheckPackage implements ReactPackage {
+public class RootCheckPackage extends TurboReactPackage {
 
    @Override
-   public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
-       return Collections.emptyList();
+   public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+       return RootCheckModule.NAME.equals(name) ? new RootCheckModule(reactContext) : null;
    }
 
    @Override
-   public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-       List<NativeModule> modules = new ArrayList<>();
-       modules.add(new RootCheckModule(reactContext));
-       return modules;
+   public ReactModuleInfoProvider getReactModuleInfoProvider() {
+       return () -> Collections.<String, ReactModuleInfo>singletonMap(RootCheckModule.NAME,
+               RootDetectionPackage.moduleInfo(RootCheckModule.NAME, RootCheckModule.class));
    }
-}
\ No newline at end of file
+}
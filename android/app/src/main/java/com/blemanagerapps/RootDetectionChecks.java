@@ -0,0 +1,141 @@
+package com.blemanagerapps;
+
+import java.util.Map;
+
+// Checks behind RootDetectionModule, kept free of the bridge so they run on a plain JVM
+// (android/benchmarks). The module decides which of them back each of its methods.
+final class RootDetectionChecks {
+
+    // Common root detection paths
+    static final String[] ROOT_PATHS = {
+        "/system/app/Superuser.apk",
+        "/sbin/su",
+        "/system/bin/su",
+        "/system/xbin/su",
+        "/data/local/xbin/su",
+        "/data/local/bin/su",
+        "/system/sd/xbin/su",
+        "/system/bin/failsafe/su",
+        "/data/local/su",
+        "/su/bin/su"
+    };
+
+    // Common root apps package names
+    static final String[] ROOT_APPS = {
+        "com.noshufou.android.su",
+        "com.noshufou.android.su.elite",
+        "eu.chainfire.supersu",
+        "com.koushikdutta.superuser",
+        "com.thirdparty.superuser",
+        "com.yellowes.su",
+        "com.topjohnwu.magisk",
+        "com.kingroot.kinguser",
+        "com.kingo.root",
+        "com.smedialink.oneclickroot",
+        "com.zhiqupk.root.global",
+        "com.alephzain.framaroot"
+    };
+
+    // Xposed framework indicators
+    static final String[] XPOSED_INDICATORS = {
+        "de.robv.android.xposed.installer",
+        "de.robv.android.xposed.installer3",
+        "io.va.exposed"
+    };
+
+    private RootDetectionChecks() {
+    }
+
+    // Method 1: Check for SU binary
+    static boolean checkRootMethod1(ProbeRegistry probes) {
+        return probes.firstExisting(ROOT_PATHS) != null;
+    }
+
+    // Method 2: Check for root apps
+    static boolean checkRootMethod2(ProbeRegistry probes) {
+        return probes.anyPackageInstalled(ROOT_APPS);
+    }
+
+    // Method 3: Check build tags
+    static boolean checkRootMethod3(RootEnvironment environment) {
+        String buildTags = environment.buildTags;
+        return buildTags != null && buildTags.contains("test-keys");
+    }
+
+    // Method 4: Check system properties and dangerous properties (PASSIVE ONLY)
+    static boolean checkRootMethod4(RootEnvironment environment, ProbeRegistry probes, MountSnapshot mounts) {
+        return checkForDangerousProps(environment) || checkForRWSystem(mounts) || checkForSuBinaryExistence(probes);
+    }
+
+    // Check for dangerous system properties that indicate root
+    static boolean checkForDangerousProps(RootEnvironment environment) {
+        String[] dangerousProps = {
+            "ro.debuggable",
+            "ro.secure"
+        };
+
+        try {
+            Map<String, String> props = environment.properties.getAll(dangerousProps);
+
+            // Check if ro.debuggable is 1 (should be 0 on production)
+            if ("1".equals(props.get("ro.debuggable"))) {
+                return true;
+            }
+
+            // Check if ro.secure is 0 (should be 1 on production)
+            if ("0".equals(props.get("ro.secure"))) {
+                return true;
+            }
+        } catch (Exception e) {
+            // Property access failed
+        }
+
+        return false;
+    }
+
+    // Passive check - only verify file existence, don't execute
+    static boolean checkForSuBinaryExistence(ProbeRegistry probes) {
+        String[] paths = {"/sbin/", "/system/bin/", "/system/xbin/", "/data/local/xbin/",
+                         "/data/local/bin/", "/system/sd/xbin/", "/system/bin/failsafe/",
+                         "/data/local/"};
+
+        for (String path : paths) {
+            // Same paths as ROOT_PATHS, so existence comes from the shared probe
+            if (probes.fileExists(path + "su") && probes.canRead(path + "su")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Check if system partition is mounted as read-write
+    static boolean checkForRWSystem(MountSnapshot mounts) {
+        return mounts.isMountedReadWrite("/system", true);
+    }
+
+    // Check for Xposed framework
+    static boolean checkForXposed(ProbeRegistry probes) {
+        // Method 1: Check for Xposed installer apps
+        if (probes.anyPackageInstalled(XPOSED_INDICATORS)) {
+            return true;
+        }
+
+        // Method 2: Check for Xposed bridge
+        try {
+            Class.forName("de.robv.android.xposed.XposedBridge");
+            return true;
+        } catch (ClassNotFoundException e) {
+            // Xposed not found
+        }
+
+        // Method 3: Check for Xposed helpers
+        try {
+            Class.forName("de.robv.android.xposed.XposedHelpers");
+            return true;
+        } catch (ClassNotFoundException e) {
+            // Xposed helpers not found
+        }
+
+        return false;
+    }
+}
@@ -1,27 +1,46 @@
 // RootDetectionPackage.java - Package registration
 package com.blemanagerapps;
 
-import com.facebook.react.ReactPackage;
+import com.facebook.react.TurboReactPackage;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
-import com.facebook.react.uimanager.ViewManager;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import com.blemanagerapps.RootDetectionModule;
-import com.blemanagerapps.EnhancedRootDetectionModule;
+import com.facebook.react.module.model.ReactModuleInfo;
+import com.facebook.react.module.model.ReactModuleInfoProvider;
+import java.util.HashMap;
+import java.util.Map;
 
-public class RootDetectionPackage implements ReactPackage {
+public class RootDetectionPackage extends TurboReactPackage {
     @Override
-    public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
-        return Collections.emptyList();
+    public NativeModule getModule(String name, ReactApplicationContext reactContext) {
+        switch (name) {
+            case RootDetectionModule.NAME:
+                return new RootDetectionModule(reactContext);
+            case EnhancedRootDetectionModule.NAME:
+                return new EnhancedRootDetectionModule(reactContext);
+            default:
+                return null;
+        }
     }
 
     @Override
-    public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-        List<NativeModule> modules = new ArrayList<>();
-        modules.add(new RootDetectionModule(reactContext));
-        modules.add(new EnhancedRootDetectionModule(reactContext));
-        return modules;
+    public ReactModuleInfoProvider getReactModuleInfoProvider() {
+        return () -> {
+            Map<String, ReactModuleInfo> modules = new HashMap<>();
+            modules.put(RootDetectionModule.NAME, moduleInfo(RootDetectionModule.NAME, RootDetectionModule.class));
+            modules.put(EnhancedRootDetectionModule.NAME, moduleInfo(EnhancedRootDetectionModule.NAME, EnhancedRootDetectionModule.class));
+            return modules;
+        };
     }
-}
\ No newline at end of file
+
+    // TurboModule when the app is built with newArchEnabled, bridge module otherwise
+    static ReactModuleInfo moduleInfo(String name, Class<?> moduleClass) {
+        return new ReactModuleInfo(
+                name,
+                moduleClass.getName(),
+                false, // canOverrideExistingModule
+                false, // needsEagerInit
+                false, // hasConstants
+                false, // isCxxModule
+                BuildConfig.IS_NEW_ARCHITECTURE_ENABLED);
+    }
+}
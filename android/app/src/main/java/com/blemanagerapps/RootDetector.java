@@ -1,51 +1,67 @@
 package com.blemanagerapps;
 
 import android.content.Context;
-import android.content.pm.PackageManager;
-import android.os.Build;
 import android.util.Log;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class RootDetector {
-    private final Context context;
-
-    static {
-        try {
-            System.loadLibrary("root_detect");
-        } catch (UnsatisfiedLinkError e) {
-            Log.w("RootDetector", "native lib not found: " + e.getMessage());
-        }
-    }
+    private final RootEnvironment environment;
+    private final ProbeRegistry probes;
 
     public static class Detection {
+        public static final String SOURCE_JAVA = "java";
+        public static final String SOURCE_NATIVE = "native";
+
         public final String key;
         public final String details;
+        public final String source;
 
         public Detection(String key, String details) {
+            this(key, details, SOURCE_JAVA);
+        }
+
+        public Detection(String key, String details, String source) {
             this.key = key;
             this.details = details;
+            this.source = source;
         }
     }
 
     public RootDetector(Context context) {
-        this.context = context;
+        this(RootEnvironment.system(PackageIndex.getInstance(context)));
+    }
+
+    public RootDetector(RootEnvironment environment) {
+        this(environment, new ProbeRegistry(environment));
+    }
+
+    // Shares path and package probe results with the other checks of the same scan
+    public RootDetector(RootEnvironment environment, ProbeRegistry probes) {
+        this.environment = environment;
+        this.probes = probes;
     }
 
     public List<Detection> runAllChecks() {
+        return runAllChecks(false);
+    }
+
+    // nativeScanCovered: root_detector.c already probed su binaries, Magisk paths and the hosts file
+    public List<Detection> runAllChecks(boolean nativeScanCovered) {
         List<Detection> results = new ArrayList<>();
         Log.d("RootDetector", "Starting root checks...");
 
-        Detection su = checkSuBinaries();
+        Detection su = nativeScanCovered ? null : checkSuBinaries();
         if (su != null) {
             results.add(su);
             Log.d("RootDetector", "SU binary detected at: " + su.details);
         }
 
-        Detection magisk = checkMagiskPaths();
+        Detection magisk = nativeScanCovered ? null : checkMagiskPaths();
         if (magisk != null) {
             results.add(magisk);
             Log.d("RootDetector", "Magisk path detected: " + magisk.details);
@@ -59,7 +75,7 @@ public class RootDetector {
             }
         }
 
-        Detection hosts = checkHostsFile();
+        Detection hosts = nativeScanCovered ? null : checkHostsFile();
         if (hosts != null) {
             results.add(hosts);
             Log.d("RootDetector", "Modified hosts file detected: " + hosts.details);
@@ -81,8 +97,23 @@ public class RootDetector {
         return results;
     }
 
+    // Concatenates detection lists, dropping repeats of the same key and details
+    public static List<Detection> merge(List<Detection> first, List<Detection> second) {
+        List<Detection> merged = new ArrayList<>(first.size() + second.size());
+        Set<String> seen = new HashSet<>();
+        for (List<Detection> list : Arrays.asList(first, second)) {
+            for (Detection d : list) {
+                if (seen.add(d.key + '\0' + d.details)) {
+                    merged.add(d);
+                }
+            }
+        }
+        return merged;
+    }
+
+    // The single checks are package-private for the host benchmarks
 
-    private Detection checkSuBinaries() {
+    Detection checkSuBinaries() {
         List<String> paths = Arrays.asList(
                 "/system/bin/su",
                 "/system/xbin/su",
@@ -95,17 +126,14 @@ public class RootDetector {
                 "/data/local/su"
         );
         for (String p : paths) {
-            try {
-                File f = new File(p);
-                if (f.exists()) {
-                    return new Detection("found_su_binary", p);
-                }
-            } catch (Exception ignored) {}
+            if (probes.fileExists(p)) {
+                return new Detection("found_su_binary", p);
+            }
         }
         return null;
     }
 
-    private Detection checkMagiskPaths() {
+    Detection checkMagiskPaths() {
         List<String> magiskPaths = Arrays.asList(
                 "/sbin/.magisk",
                 "/data/adb/magisk",
@@ -114,17 +142,14 @@ public class RootDetector {
                 "/data/adb/magisk.db"
         );
         for (String p : magiskPaths) {
-            try {
-                File f = new File(p);
-                if (f.exists()) {
-                    return new Detection("detected_magisk", p);
-                }
-            } catch (Exception ignored) {}
+            if (probes.fileExists(p)) {
+                return new Detection("detected_magisk", p);
+            }
         }
         return null;
     }
 
-    private List<Detection> checkPackages() {
+    List<Detection> checkPackages() {
         List<Detection> detections = new ArrayList<>();
         List<String> knownRootApps = Arrays.asList(
                 "com.topjohnwu.magisk",
@@ -135,48 +160,40 @@ public class RootDetector {
                 "com.koushikdutta.superuser",
                 "com.kingouser.com"
         );
-        PackageManager pm = context.getPackageManager();
         for (String pkg : knownRootApps) {
-            try {
-                pm.getPackageInfo(pkg, 0);
+            if (probes.isPackageInstalled(pkg)) {
                 detections.add(new Detection("detected_root_app", pkg));
-            } catch (PackageManager.NameNotFoundException ignored) {}
+            }
         }
         return detections.isEmpty() ? null : detections;
     }
 
-    private Detection checkHostsFile() {
+    Detection checkHostsFile() {
         List<String> hostsPaths = Arrays.asList("/system/etc/hosts", "/etc/hosts");
         for (String p : hostsPaths) {
-            try {
-                File f = new File(p);
-                if (f.exists() && f.length() > 2048) {
-                    return new Detection("detected_modified_hosts_file", p);
-                }
-            } catch (Exception ignored) {}
+            if (probes.fileExists(p) && probes.fileLength(p) > 2048) {
+                return new Detection("detected_modified_hosts_file", p);
+            }
         }
         return null;
     }
 
-    private Detection checkAddonOrInstallRecovery() {
+    Detection checkAddonOrInstallRecovery() {
         List<String> paths = Arrays.asList(
                 "/system/addon.d",
                 "/system/etc/install-recovery.sh",
                 "/vendor/addon.d"
         );
         for (String p : paths) {
-            try {
-                File f = new File(p);
-                if (f.exists()) {
-                    return new Detection("addon_d_or_install_recovery_sh_exists", p);
-                }
-            } catch (Exception ignored) {}
+            if (probes.fileExists(p)) {
+                return new Detection("addon_d_or_install_recovery_sh_exists", p);
+            }
         }
         return null;
     }
 
-    private Detection checkDebugFingerprint() {
-        String fp = Build.FINGERPRINT;
+    Detection checkDebugFingerprint() {
+        String fp = environment.buildFingerprint;
         if (fp != null && (fp.contains("test-keys") || fp.contains("dev-keys") || fp.contains("debug"))) {
             return new Detection("debug_fingerprint_detected", fp);
         }
@@ -0,0 +1,86 @@
+package com.blemanagerapps;
+
+import android.os.Build;
+
+import java.io.File;
+import java.util.Map;
+
+// Everything the Java checks read from the device: files, installed packages, system
+// properties, the mount table and the build identity. system() is the real device;
+// the host benchmarks (android/benchmarks) plug in rooted and clean fixtures instead.
+public final class RootEnvironment {
+
+    public interface Files {
+        boolean exists(String path);
+
+        boolean canRead(String path);
+
+        // Size in bytes, 0 if missing or unreadable
+        long length(String path);
+    }
+
+    public interface Packages {
+        boolean contains(String packageName);
+    }
+
+    public interface Properties {
+        // Unset or unreadable keys map to ""
+        Map<String, String> getAll(String... keys);
+    }
+
+    public interface Mounts {
+        MountSnapshot read();
+    }
+
+    public static final Files SYSTEM_FILES = new Files() {
+        @Override
+        public boolean exists(String path) {
+            try {
+                return new File(path).exists();
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        @Override
+        public boolean canRead(String path) {
+            try {
+                return new File(path).canRead();
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        @Override
+        public long length(String path) {
+            try {
+                return new File(path).length();
+            } catch (Exception e) {
+                return 0;
+            }
+        }
+    };
+
+    public final Files files;
+    public final Packages packages;
+    public final Properties properties;
+    public final Mounts mounts;
+    public final String buildTags;
+    public final String buildFingerprint;
+
+    public RootEnvironment(Files files, Packages packages, Properties properties, Mounts mounts,
+                           String buildTags, String buildFingerprint) {
+        this.files = files;
+        this.packages = packages;
+        this.properties = properties;
+        this.mounts = mounts;
+        this.buildTags = buildTags;
+        this.buildFingerprint = buildFingerprint;
+    }
+
+    // The device, with package lookups going to the given index (normally PackageIndex)
+    public static RootEnvironment system(Packages packages) {
+        return new RootEnvironment(SYSTEM_FILES, packages, SystemPropertyReader::getAll,
+                MountSnapshot::read, Build.TAGS, Build.FINGERPRINT);
+    }
+}
@@ -0,0 +1,135 @@
+package com.blemanagerapps;
+
+import android.util.Log;
+
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Periodic root scans on a native scheduler instead of a JS setInterval. The interval
+// doubles while results stay unrooted and unchanged (up to MAX_BACKOFF x the base
+// interval), whatever the risk score, and drops to a quarter of the base while rooted
+// or after a change in verdict or score. Listeners
+// only hear about scans whose verdict or risk score differs from the previous one.
+public class RootMonitor {
+    private static final String TAG = "RootMonitor";
+    private static final int MAX_BACKOFF = 8;
+    private static final long MIN_INTERVAL_MS = 1_000;
+
+    public interface Scanner {
+        // Must contain "isRooted" and "riskScore"
+        WritableMap scan() throws Exception;
+    }
+
+    public interface Listener {
+        void onStatusChanged(WritableMap result);
+    }
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> pending;
+    private Scanner scanner;
+    private Listener listener;
+    private long baseIntervalMs;
+    private long intervalMs;
+    private Boolean lastRooted;
+    private int lastRiskScore;
+    private boolean scanRequested;
+
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    // Scans immediately, then on the adaptive interval. Restarting resets the backoff
+    // and the last reported status, so the first scan is always reported.
+    public synchronized void start(long baseIntervalMs, Scanner scanner, Listener listener) {
+        stop();
+        this.baseIntervalMs = Math.max(MIN_INTERVAL_MS, baseIntervalMs);
+        this.intervalMs = this.baseIntervalMs;
+        this.scanner = scanner;
+        this.listener = listener;
+        this.lastRooted = null;
+
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "RootMonitor");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        scheduler = executor;
+        schedule(0);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            pending = null;
+        }
+    }
+
+    // Something changed (e.g. the path watcher fired), scan now instead of at the next tick
+    public synchronized void requestScan() {
+        if (scheduler != null) {
+            intervalMs = baseIntervalMs;
+            scanRequested = true;
+            schedule(0);
+        }
+    }
+
+    private void schedule(long delayMs) {
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pending = scheduler.schedule(this::tick, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void tick() {
+        Scanner currentScanner;
+        synchronized (this) {
+            if (scheduler == null) return;
+            currentScanner = scanner;
+            scanRequested = false;
+        }
+
+        WritableMap result = null;
+        try {
+            result = currentScanner.scan();
+        } catch (Exception e) {
+            Log.w(TAG, "Scheduled scan failed", e);
+        }
+
+        Listener notify = null;
+        synchronized (this) {
+            if (scheduler == null || currentScanner != scanner) return;
+            if (result != null) {
+                boolean rooted = result.getBoolean("isRooted");
+                int riskScore = result.getInt("riskScore");
+                boolean changed = lastRooted == null || lastRooted != rooted || lastRiskScore != riskScore;
+                // A stable non-zero score (e.g. an unlocked bootloader) backs off like a clean one
+                if (changed || rooted) {
+                    intervalMs = Math.max(MIN_INTERVAL_MS, baseIntervalMs / 4);
+                } else {
+                    intervalMs = Math.min(intervalMs * 2, baseIntervalMs * MAX_BACKOFF);
+                }
+                if (changed) {
+                    lastRooted = rooted;
+                    lastRiskScore = riskScore;
+                    notify = listener;
+                }
+            }
+            // A scan requested while this one ran is already queued
+            if (!scanRequested) {
+                Log.d(TAG, "Next scan in " + intervalMs + "ms");
+                schedule(intervalMs);
+            }
+        }
+
+        if (notify != null) {
+            notify.onStatusChanged(result);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.blemanagerapps;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Watches the directories that hold root indicators with inotify (path_watcher.c) and
+// reports files appearing or disappearing there, so a device rooted mid-session is
+// noticed without periodic full rescans.
+public class RootPathWatcher {
+    private static final String TAG = "RootPathWatcher";
+
+    public interface Callback {
+        void onPathChanged(String kind, String path);
+    }
+
+    private static final boolean nativeAvailable;
+
+    static {
+        boolean loaded;
+        try {
+            System.loadLibrary("root_detector");
+            loaded = true;
+        } catch (UnsatisfiedLinkError e) {
+            Log.w(TAG, "native watcher unavailable: " + e.getMessage());
+            loaded = false;
+        }
+        nativeAvailable = loaded;
+    }
+
+    private static native long nativeOpen();
+    private static native boolean nativeAdd(long handle, String dir);
+    private static native String[] nativeRead(long handle) throws IOException;
+    private static native void nativeWake(long handle);
+    private static native void nativeClose(long handle);
+
+    private final Set<String> wantedDirs = new LinkedHashSet<>();
+    private final Set<String> watchedDirs = Collections.synchronizedSet(new LinkedHashSet<>());
+    private long handle;
+    private Thread thread;
+
+    // Parent directories of the given indicator paths, plus any directories listed as-is
+    public static Set<String> parentDirs(Collection<String> paths) {
+        Set<String> dirs = new LinkedHashSet<>();
+        for (String path : paths) {
+            String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+            String parent = new File(trimmed).getParent();
+            if (parent != null) dirs.add(parent);
+        }
+        return dirs;
+    }
+
+    public synchronized boolean isRunning() {
+        return thread != null;
+    }
+
+    // Starts watching and returns the directories actually watched. A directory that does
+    // not exist yet is covered through its parent and watched once it is created.
+    public synchronized List<String> start(Collection<String> dirs, Callback callback) {
+        if (thread != null) {
+            return new ArrayList<>(watchedDirs);
+        }
+        if (!nativeAvailable || (handle = nativeOpen()) == 0) {
+            throw new IllegalStateException("inotify watcher unavailable");
+        }
+        wantedDirs.clear();
+        wantedDirs.addAll(dirs);
+        watchedDirs.clear();
+        for (String dir : wantedDirs) {
+            watch(dir);
+        }
+
+        final long watcher = handle;
+        thread = new Thread(() -> readLoop(watcher, callback), "RootPathWatcher");
+        thread.setDaemon(true);
+        thread.start();
+        Log.d(TAG, "Watching " + watchedDirs);
+        return new ArrayList<>(watchedDirs);
+    }
+
+    public void stop() {
+        Thread reader;
+        synchronized (this) {
+            if (thread == null) {
+                return;
+            }
+            // The reader closes the handle once it has returned from nativeRead
+            nativeWake(handle);
+            reader = thread;
+            handle = 0;
+            thread = null;
+            watchedDirs.clear();
+        }
+        try {
+            reader.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watch(String dir) {
+        if (nativeAdd(handle, dir)) {
+            watchedDirs.add(dir);
+            return;
+        }
+        String parent = new File(dir).getParent();
+        if (parent != null && !new File(dir).exists() && nativeAdd(handle, parent)) {
+            watchedDirs.add(parent);
+        }
+    }
+
+    private void readLoop(long watcher, Callback callback) {
+        try {
+            String[] events;
+            // A batch may be empty, e.g. when it only reported a deleted watched directory
+            while ((events = nativeRead(watcher)) != null) {
+                dispatch(watcher, events, callback);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "inotify read failed, watcher stopped", e);
+        } finally {
+            synchronized (this) {
+                // Stopped by a read error rather than stop()
+                if (thread == Thread.currentThread()) {
+                    handle = 0;
+                    thread = null;
+                    watchedDirs.clear();
+                }
+            }
+            // After the synchronized block, so a stop() in progress has finished its wake
+            nativeClose(watcher);
+        }
+    }
+
+    private void dispatch(long watcher, String[] events, Callback callback) {
+        for (int i = 0; i + 1 < events.length; i += 2) {
+            String kind = events[i];
+            String path = events[i + 1];
+            if (!isRelevant(path)) {
+                continue;
+            }
+            if ("created".equals(kind)) {
+                synchronized (this) {
+                    if (handle == watcher && wantedDirs.contains(path) && nativeAdd(watcher, path)) {
+                        watchedDirs.add(path);
+                    }
+                }
+            }
+            callback.onPathChanged(kind, path);
+        }
+    }
+
+    // Events in a wanted directory, or on a directory leading to one
+    private boolean isRelevant(String path) {
+        for (String dir : wantedDirs) {
+            if (path.startsWith(dir + "/") || path.equals(dir) || dir.startsWith(path + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
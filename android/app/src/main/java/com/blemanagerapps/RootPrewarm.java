@@ -0,0 +1,45 @@
+package com.blemanagerapps;
+
+import android.content.Context;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Cold-start warm-up of root detection, started from MainApplication.onCreate. While the
+// JS bundle loads, a background-priority thread loads the native library, builds the
+// package index and runs the boot-invariant checks, Java and native, so the first
+// getDetailedRootInfo only has to run the TTL and volatile ones. Nothing here spawns a
+// process or walks /proc, which would compete with the first render.
+public final class RootPrewarm {
+    private static final String TAG = "RootPrewarm";
+
+    private static final AtomicBoolean started = new AtomicBoolean();
+
+    private RootPrewarm() {
+    }
+
+    public static void start(Context context) {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        final Context appContext = context.getApplicationContext();
+        Thread thread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            long start = SystemClock.elapsedRealtime();
+            try {
+                // Loads root_detector through NativeRootDetection's static initializer
+                boolean nativeAvailable = NativeRootDetection.isAvailable();
+                EnhancedRootDetectionModule.prewarm(appContext);
+                Log.d(TAG, "Prewarmed in " + (SystemClock.elapsedRealtime() - start)
+                        + "ms (native " + nativeAvailable + ")");
+            } catch (RuntimeException e) {
+                // The first scan simply runs everything itself
+                Log.w(TAG, "Prewarm failed", e);
+            }
+        }, "RootPrewarm");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
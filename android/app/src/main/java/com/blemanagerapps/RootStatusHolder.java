@@ -0,0 +1,37 @@
+package com.blemanagerapps;
+
+import android.os.SystemClock;
+
+// Outcome of the most recent full scan, readable without running a scan
+public final class RootStatusHolder {
+
+    public static final class Status {
+        public final boolean isRooted;
+        public final int riskScore;
+        public final long scannedAt;   // SystemClock.elapsedRealtime()
+
+        Status(boolean isRooted, int riskScore, long scannedAt) {
+            this.isRooted = isRooted;
+            this.riskScore = riskScore;
+            this.scannedAt = scannedAt;
+        }
+
+        public long ageMillis() {
+            return SystemClock.elapsedRealtime() - scannedAt;
+        }
+    }
+
+    private static volatile Status latest;
+
+    private RootStatusHolder() {
+    }
+
+    // Null until the first scan has finished
+    public static Status latest() {
+        return latest;
+    }
+
+    public static void publish(boolean isRooted, int riskScore) {
+        latest = new Status(isRooted, riskScore, SystemClock.elapsedRealtime());
+    }
+}
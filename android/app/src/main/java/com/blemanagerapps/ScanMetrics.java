@@ -0,0 +1,210 @@
+package com.blemanagerapps;
+
+import android.os.Debug;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Latency, CPU time and outcome counters of the checks run on RootCheckEngine, plus the
+// JNI calls and child processes behind them. Aggregates are process-wide (getScanMetrics);
+// a Scan collects the timings of one scan for its result.
+public final class ScanMetrics {
+    private static final ScanMetrics INSTANCE = new ScanMetrics();
+
+    public static final class CheckStats {
+        public final LatencyHistogram wall = new LatencyHistogram();
+        public final LatencyHistogram cpu = new LatencyHistogram();
+        private final AtomicLong runs = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong cacheHits = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private volatile long lastWallMicros = -1;
+
+        public long runs() {
+            return runs.get();
+        }
+
+        public long errors() {
+            return errors.get();
+        }
+
+        public long cacheHits() {
+            return cacheHits.get();
+        }
+
+        // Runs abandoned at a scan deadline, or native scans cut short by it
+        public long timeouts() {
+            return timeouts.get();
+        }
+
+        public long lastWallMicros() {
+            return lastWallMicros;
+        }
+    }
+
+    // One check within one scan
+    public static final class Timing {
+        static final Timing CACHED = new Timing(0, 0, true, false, false);
+
+        public final long wallMicros;
+        public final long cpuMicros;    // -1 where thread CPU time is unavailable
+        public final boolean cached;
+        public final boolean failed;
+        // Missed the scan deadline, its result is missing or incomplete
+        public final boolean timedOut;
+
+        Timing(long wallMicros, long cpuMicros, boolean cached, boolean failed, boolean timedOut) {
+            this.wallMicros = wallMicros;
+            this.cpuMicros = cpuMicros;
+            this.cached = cached;
+            this.failed = failed;
+            this.timedOut = timedOut;
+        }
+    }
+
+    // What a finished scan reports next to its result
+    public static final class Summary {
+        public final long wallMicros;
+        // Process-wide deltas over the scan, so they include any scan running concurrently
+        public final long jniCalls;
+        public final long processSpawns;
+        // Check name -> timing, in the order the checks were given
+        public final Map<String, Timing> checks;
+
+        Summary(long wallMicros, long jniCalls, long processSpawns, Map<String, Timing> checks) {
+            this.wallMicros = wallMicros;
+            this.jniCalls = jniCalls;
+            this.processSpawns = processSpawns;
+            this.checks = checks;
+        }
+    }
+
+    // Timings of one scan, filled in from the engine's worker threads
+    public final class Scan {
+        private final long startNanos = System.nanoTime();
+        private final long jniCallsAtStart = jniCalls.get();
+        private final long spawnsAtStart = processSpawns.get();
+        private final Map<String, Timing> timings = new ConcurrentHashMap<>();
+
+        private Scan() {
+        }
+
+        void add(String check, Timing timing) {
+            // A check finishing after it was marked timed out keeps that mark
+            timings.putIfAbsent(check, timing);
+        }
+
+        // The check missed the deadline. If it did finish, its measured times are kept.
+        void markTimedOut(String check, long wallMicros) {
+            recordTimeout(check);
+            Timing finished = timings.get(check);
+            timings.put(check, finished != null
+                    ? new Timing(finished.wallMicros, finished.cpuMicros, false, finished.failed, true)
+                    : new Timing(wallMicros, -1, false, false, true));
+        }
+
+        public Summary finish(List<RootCheck> checks) {
+            long wallMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+            scans.incrementAndGet();
+            scanWall.record(wallMicros);
+
+            Map<String, Timing> ordered = new LinkedHashMap<>();
+            for (RootCheck check : checks) {
+                Timing timing = timings.get(check.name);
+                if (timing != null) {
+                    ordered.put(check.name, timing);
+                }
+            }
+            return new Summary(wallMicros, jniCalls.get() - jniCallsAtStart,
+                    processSpawns.get() - spawnsAtStart, Collections.unmodifiableMap(ordered));
+        }
+    }
+
+    private final ConcurrentHashMap<String, CheckStats> checks = new ConcurrentHashMap<>();
+    private final AtomicLong jniCalls = new AtomicLong();
+    private final AtomicLong processSpawns = new AtomicLong();
+    private final AtomicLong scans = new AtomicLong();
+    private final LatencyHistogram scanWall = new LatencyHistogram();
+
+    private ScanMetrics() {
+    }
+
+    public static ScanMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public Scan beginScan() {
+        return new Scan();
+    }
+
+    // CPU time of the calling thread, -1 if the runtime does not report it
+    static long threadCpuMicros() {
+        long nanos = Debug.threadCpuTimeNanos();
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    void recordRun(String check, long wallMicros, long cpuMicros, boolean failed) {
+        CheckStats stats = stats(check);
+        stats.runs.incrementAndGet();
+        if (failed) {
+            stats.errors.incrementAndGet();
+        }
+        stats.wall.record(wallMicros);
+        if (cpuMicros >= 0) {
+            stats.cpu.record(cpuMicros);
+        }
+        stats.lastWallMicros = wallMicros;
+    }
+
+    void recordTimeout(String check) {
+        stats(check).timeouts.incrementAndGet();
+    }
+
+    void recordCacheHit(String check) {
+        stats(check).cacheHits.incrementAndGet();
+    }
+
+    void countJniCall() {
+        jniCalls.incrementAndGet();
+    }
+
+    void countProcessSpawns(int count) {
+        processSpawns.addAndGet(count);
+    }
+
+    public long jniCalls() {
+        return jniCalls.get();
+    }
+
+    public long processSpawns() {
+        return processSpawns.get();
+    }
+
+    public long scans() {
+        return scans.get();
+    }
+
+    public LatencyHistogram scanWall() {
+        return scanWall;
+    }
+
+    // RootCheck.key -> stats for every check that has run or hit the cache
+    public Map<String, CheckStats> checks() {
+        return Collections.unmodifiableMap(checks);
+    }
+
+    private CheckStats stats(String check) {
+        CheckStats stats = checks.get(check);
+        if (stats == null) {
+            CheckStats created = new CheckStats();
+            CheckStats raced = checks.putIfAbsent(check, created);
+            stats = raced != null ? raced : created;
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,55 @@
+package com.blemanagerapps;
+
+import java.util.Locale;
+
+import static com.blemanagerapps.NativeRootDetection.SCAN_ALL;
+import static com.blemanagerapps.NativeRootDetection.SCAN_DETECTIONS;
+import static com.blemanagerapps.NativeRootDetection.SCAN_MAGISK;
+
+// How much of the detailed scan a caller pays for. Each profile picks the checks that
+// run and has a latency budget, which is the scan deadline unless the caller passes one.
+// Budgets assume a low-end device with the BOOT results cached by RootPrewarm and the
+// TTL ones by an earlier scan.
+public enum ScanProfile {
+    // Login gates. Java file, property and package checks, the native detections and the
+    // in-process Magisk layers: no child processes, no /proc walk, no RootBeer.
+    QUICK(150, false, false, SCAN_MAGISK | SCAN_DETECTIONS),
+    // Adds RootBeer, which runs `which su`, getprop and mount as child processes
+    STANDARD(1_000, true, false, SCAN_MAGISK | SCAN_DETECTIONS),
+    // Background audits, the full scan. Adds the /proc walk for su processes and
+    // zygote/system_server maps, the isolated probes and the logcat read.
+    DEEP(10_000, true, true, SCAN_ALL);
+
+    public final long budgetMs;
+    public final boolean rootBeer;
+    // The Java /proc walk, run in place of the native one when the library is missing
+    public final boolean processes;
+    // Flags of NativeRootDetection.scan
+    public final int nativeFlags;
+
+    ScanProfile(long budgetMs, boolean rootBeer, boolean processes, int nativeFlags) {
+        this.budgetMs = budgetMs;
+        this.rootBeer = rootBeer;
+        this.processes = processes;
+        this.nativeFlags = nativeFlags;
+    }
+
+    // "quick", "standard" or "deep"; null for DEEP, which is what every scan ran before
+    // profiles existed
+    public static ScanProfile fromName(String name) {
+        if (name == null) {
+            return DEEP;
+        }
+        for (ScanProfile profile : values()) {
+            if (profile.toString().equals(name)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scan profile: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
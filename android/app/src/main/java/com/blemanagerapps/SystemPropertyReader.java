@@ -0,0 +1,68 @@
+package com.blemanagerapps;
+
+import android.util.Log;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Reads system properties in-process instead of forking `getprop` per key.
+// Uses __system_property_get through JNI, falling back to android.os.SystemProperties.
+public final class SystemPropertyReader {
+    private static final String TAG = "SystemPropertyReader";
+
+    private static final boolean nativeAvailable;
+    private static Method reflectiveGet;
+
+    static {
+        boolean loaded;
+        try {
+            System.loadLibrary("root_detector");
+            loaded = true;
+        } catch (UnsatisfiedLinkError e) {
+            Log.w(TAG, "native property reader unavailable: " + e.getMessage());
+            loaded = false;
+        }
+        nativeAvailable = loaded;
+    }
+
+    private SystemPropertyReader() {
+    }
+
+    private static native String[] nativeGetProperties(String[] keys);
+
+    public static String get(String key) {
+        return getAll(key).get(key);
+    }
+
+    // Reads all keys in one batch; unset or unreadable keys map to ""
+    public static Map<String, String> getAll(String... keys) {
+        String[] values = null;
+        if (nativeAvailable) {
+            try {
+                ScanMetrics.getInstance().countJniCall();
+                values = nativeGetProperties(keys);
+            } catch (UnsatisfiedLinkError e) {
+                Log.w(TAG, "nativeGetProperties failed: " + e.getMessage());
+            }
+        }
+
+        Map<String, String> result = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            String value = values != null ? values[i] : getReflective(keys[i]);
+            result.put(keys[i], value != null ? value.trim() : "");
+        }
+        return result;
+    }
+
+    private static synchronized String getReflective(String key) {
+        try {
+            if (reflectiveGet == null) {
+                reflectiveGet = Class.forName("android.os.SystemProperties").getMethod("get", String.class);
+            }
+            return (String) reflectiveGet.invoke(null, key);
+        } catch (Exception e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.blemanagerapps;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+
+// New architecture: EnhancedRootDetectionModule implements the spec generated from src/specs/NativeEnhancedRootDetectionModule.ts
+abstract class EnhancedRootDetectionModuleSpec extends NativeEnhancedRootDetectionModuleSpec {
+    EnhancedRootDetectionModuleSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
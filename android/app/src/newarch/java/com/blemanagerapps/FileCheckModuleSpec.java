@@ -0,0 +1,10 @@
+package com.blemanagerapps;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+
+// New architecture: FileCheckModule implements the spec generated from src/specs/NativeFileCheckModule.ts
+abstract class FileCheckModuleSpec extends NativeFileCheckModuleSpec {
+    FileCheckModuleSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
@@ -0,0 +1,10 @@
+package com.blemanagerapps;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+
+// New architecture: RootCheckModule implements the spec generated from src/specs/NativeRootCheckModule.ts
+abstract class RootCheckModuleSpec extends NativeRootCheckModuleSpec {
+    RootCheckModuleSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
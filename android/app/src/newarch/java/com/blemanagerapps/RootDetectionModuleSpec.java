@@ -0,0 +1,10 @@
+package com.blemanagerapps;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+
+// New architecture: RootDetectionModule implements the spec generated from src/specs/NativeRootDetectionModule.ts
+abstract class RootDetectionModuleSpec extends NativeRootDetectionModuleSpec {
+    RootDetectionModuleSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
@@ -0,0 +1,11 @@
+package com.blemanagerapps;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+
+// Old architecture: EnhancedRootDetectionModule is a plain bridge module
+abstract class EnhancedRootDetectionModuleSpec extends ReactContextBaseJavaModule {
+    EnhancedRootDetectionModuleSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
@@ -0,0 +1,11 @@
+package com.blemanagerapps;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+
+// Old architecture: FileCheckModule is a plain bridge module
+abstract class FileCheckModuleSpec extends ReactContextBaseJavaModule {
+    FileCheckModuleSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
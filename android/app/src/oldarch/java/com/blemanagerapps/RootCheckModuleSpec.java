@@ -0,0 +1,11 @@
+package com.blemanagerapps;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+
+// Old architecture: RootCheckModule is a plain bridge module
+abstract class RootCheckModuleSpec extends ReactContextBaseJavaModule {
+    RootCheckModuleSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
@@ -0,0 +1,11 @@
+package com.blemanagerapps;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+
+// Old architecture: RootDetectionModule is a plain bridge module
+abstract class RootDetectionModuleSpec extends ReactContextBaseJavaModule {
+    RootDetectionModuleSpec(ReactApplicationContext context) {
+        super(context);
+    }
+}
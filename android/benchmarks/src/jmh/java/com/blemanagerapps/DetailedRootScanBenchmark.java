@@ -0,0 +1,96 @@
+package com.blemanagerapps;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.Callable;
+
+// EnhancedRootDetectionModule's checks and the getDetailedRootInfo pipeline. On the host
+// root_detector is not loaded, so the pipeline takes its Java fallbacks; the su process
+// fallback reads the host's /proc, which is the one input the fixtures do not replace.
+@State(Scope.Thread)
+public class DetailedRootScanBenchmark {
+
+    @Param({Fixtures.CLEAN, Fixtures.ROOTED})
+    public String device;
+
+    private RootEnvironment environment;
+    // Stands in for RootBeer, which needs a device
+    private Callable<Boolean> rootBeer;
+    private RootCheckCache warmCache;
+
+    @Setup
+    public void setUp() {
+        environment = Fixtures.environment(device);
+        boolean rooted = Fixtures.ROOTED.equals(device);
+        rootBeer = () -> rooted;
+        warmCache = new RootCheckCache(Long.MAX_VALUE);
+        warmCache.warm(DetailedRootScan.cacheableChecks(environment, new ProbeRegistry(environment), rootBeer));
+    }
+
+    @Benchmark
+    public boolean suExists() {
+        return DetailedRootScan.checkSuExists(new ProbeRegistry(environment));
+    }
+
+    @Benchmark
+    public boolean rootPackages() {
+        return DetailedRootScan.checkPackages(new ProbeRegistry(environment));
+    }
+
+    @Benchmark
+    public boolean buildTags() {
+        return DetailedRootScan.checkBuildTags(environment);
+    }
+
+    @Benchmark
+    public boolean dangerousProps() {
+        return DetailedRootScan.checkProps(environment);
+    }
+
+    @Benchmark
+    public boolean suspiciousPaths() {
+        return DetailedRootScan.checkPaths(new ProbeRegistry(environment));
+    }
+
+    @Benchmark
+    public boolean rwSystemPartition() {
+        return DetailedRootScan.checkRWPaths(environment.mounts.read());
+    }
+
+    @Benchmark
+    public boolean dangerousApps() {
+        return DetailedRootScan.checkDangerousApps(new ProbeRegistry(environment));
+    }
+
+    @Benchmark
+    public boolean suProcessRunning() {
+        return DetailedRootScan.isSuProcessRunning();
+    }
+
+    // Every check runs, as on the first scan without prewarm
+    @Benchmark
+    public DetailedRootScan.Report detailedRootInfo() {
+        return new DetailedRootScan(environment, rootBeer, null).run();
+    }
+
+    // Reduced profiles, without a deadline so the whole profile is measured
+    @Benchmark
+    public DetailedRootScan.Report detailedRootInfoQuick() {
+        return new DetailedRootScan(environment, rootBeer, null, ScanProfile.QUICK, 0).run();
+    }
+
+    @Benchmark
+    public DetailedRootScan.Report detailedRootInfoStandard() {
+        return new DetailedRootScan(environment, rootBeer, null, ScanProfile.STANDARD, 0).run();
+    }
+
+    // BOOT and TTL results come from the cache, as after a recent scan
+    @Benchmark
+    public DetailedRootScan.Report detailedRootInfoCached() {
+        return new DetailedRootScan(environment, rootBeer, warmCache).run();
+    }
+}
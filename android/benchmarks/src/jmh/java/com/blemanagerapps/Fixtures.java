@@ -0,0 +1,136 @@
+package com.blemanagerapps;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Rooted and clean devices for the benchmarks. Lookups are in memory, so the numbers
+// cover the Java side of each check (probe bookkeeping, string handling, allocation),
+// not the cost of stat() or Binder calls on a real device.
+final class Fixtures {
+    static final String CLEAN = "clean";
+    static final String ROOTED = "rooted";
+
+    // Installed packages besides the root apps, the size of a typical user device
+    private static final int BACKGROUND_PACKAGES = 350;
+
+    private static final List<String> CLEAN_MOUNTINFO = Arrays.asList(
+        "1 0 253:0 / / ro,relatime shared:1 - ext4 /dev/block/dm-0 ro,seclabel",
+        "2 1 0:5 / /dev rw,nosuid,relatime shared:2 - tmpfs tmpfs rw,seclabel,mode=755",
+        "3 1 0:20 / /proc rw,relatime shared:3 - proc proc rw,gid=3009,hidepid=invisible",
+        "4 1 0:19 / /sys rw,relatime shared:4 - sysfs sysfs rw,seclabel",
+        "5 1 253:1 / /system ro,relatime shared:5 - ext4 /dev/block/dm-1 ro,seclabel",
+        "6 1 253:2 / /vendor ro,relatime shared:6 - ext4 /dev/block/dm-2 ro,seclabel",
+        "7 1 253:3 / /product ro,relatime shared:7 - ext4 /dev/block/dm-3 ro,seclabel",
+        "8 1 259:4 / /data rw,nosuid,nodev,noatime shared:8 - f2fs /dev/block/dm-5 rw,seclabel",
+        "9 1 259:5 / /metadata rw,nosuid,nodev,noatime shared:9 - ext4 /dev/block/sda12 rw,seclabel",
+        "10 5 7:8 / /system/apex/com.android.runtime ro,nodev,relatime shared:10 - ext4 /dev/block/loop8 ro,seclabel"
+    );
+
+    // Magisk-style: tmpfs over /sbin, /system remounted rw and a module overlay below it
+    private static final List<String> ROOTED_MOUNTINFO = Arrays.asList(
+        "1 0 253:0 / / ro,relatime shared:1 - ext4 /dev/block/dm-0 ro,seclabel",
+        "2 1 0:5 / /dev rw,nosuid,relatime shared:2 - tmpfs tmpfs rw,seclabel,mode=755",
+        "3 1 0:20 / /proc rw,relatime shared:3 - proc proc rw,gid=3009,hidepid=invisible",
+        "4 1 0:19 / /sys rw,relatime shared:4 - sysfs sysfs rw,seclabel",
+        "5 1 253:1 / /system rw,relatime shared:5 - ext4 /dev/block/dm-1 rw,seclabel",
+        "6 1 253:2 / /vendor ro,relatime shared:6 - ext4 /dev/block/dm-2 ro,seclabel",
+        "7 1 253:3 / /product ro,relatime shared:7 - ext4 /dev/block/dm-3 ro,seclabel",
+        "8 1 259:4 / /data rw,nosuid,nodev,noatime shared:8 - f2fs /dev/block/dm-5 rw,seclabel",
+        "9 1 0:30 / /sbin rw,relatime shared:11 - tmpfs magisk rw,seclabel,mode=755",
+        "10 5 259:4 /adb/modules/hosts/system/etc/hosts /system/etc/hosts rw,relatime - f2fs /dev/block/dm-5 rw,seclabel",
+        "11 5 7:8 / /system/apex/com.android.runtime ro,nodev,relatime shared:10 - ext4 /dev/block/loop8 ro,seclabel"
+    );
+
+    private static final String[] ROOTED_FILES = {
+        "/sbin/su",
+        "/system/xbin/su",
+        "/system/xbin/daemonsu",
+        "/data/adb/magisk",
+        "/data/adb/modules",
+        "/data/adb/magisk.db",
+        "/system/addon.d",
+        "/system/etc/init.d/99SuperSUDaemon"
+    };
+
+    private static final String[] ROOTED_PACKAGES = {
+        "com.topjohnwu.magisk",
+        "eu.chainfire.supersu",
+        "com.chelpus.lackypatch",
+        "de.robv.android.xposed.installer"
+    };
+
+    private Fixtures() {
+    }
+
+    static RootEnvironment environment(String device) {
+        boolean rooted = ROOTED.equals(device);
+
+        Map<String, Long> files = new HashMap<>();
+        files.put("/system/etc/hosts", rooted ? 48_213L : 56L);
+        files.put("/etc/hosts", 56L);
+        if (rooted) {
+            for (String path : ROOTED_FILES) {
+                files.put(path, 4096L);
+            }
+        }
+
+        Set<String> packages = new HashSet<>();
+        for (int i = 0; i < BACKGROUND_PACKAGES; i++) {
+            packages.add("com.example.app" + i);
+        }
+        if (rooted) {
+            packages.addAll(Arrays.asList(ROOTED_PACKAGES));
+        }
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("ro.debuggable", rooted ? "1" : "0");
+        properties.put("ro.secure", rooted ? "0" : "1");
+
+        List<String> mountinfo = rooted ? ROOTED_MOUNTINFO : CLEAN_MOUNTINFO;
+        String tags = rooted ? "test-keys" : "release-keys";
+        return new RootEnvironment(
+                new FakeFiles(files),
+                packages::contains,
+                keys -> {
+                    Map<String, String> values = new HashMap<>();
+                    for (String key : keys) {
+                        String value = properties.get(key);
+                        values.put(key, value != null ? value : "");
+                    }
+                    return values;
+                },
+                // Parsed on every read, like MountSnapshot.read() on the device
+                () -> MountSnapshot.parse(mountinfo, "mnt:[4026531840]"),
+                tags,
+                "google/raven/raven:14/UQ1A.240205.004/11269751:user/" + tags);
+    }
+
+    private static final class FakeFiles implements RootEnvironment.Files {
+        private final Map<String, Long> sizes;
+
+        FakeFiles(Map<String, Long> sizes) {
+            this.sizes = Collections.unmodifiableMap(sizes);
+        }
+
+        @Override
+        public boolean exists(String path) {
+            return sizes.containsKey(path);
+        }
+
+        @Override
+        public boolean canRead(String path) {
+            return sizes.containsKey(path);
+        }
+
+        @Override
+        public long length(String path) {
+            Long size = sizes.get(path);
+            return size != null ? size : 0;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.blemanagerapps;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// The checks behind RootDetectionModule (isRooted, getRootInfo, hasXposed)
+@State(Scope.Thread)
+public class RootDetectionChecksBenchmark {
+
+    @Param({Fixtures.CLEAN, Fixtures.ROOTED})
+    public String device;
+
+    private RootEnvironment environment;
+
+    @Setup
+    public void setUp() {
+        environment = Fixtures.environment(device);
+    }
+
+    @Benchmark
+    public boolean suBinary() {
+        return RootDetectionChecks.checkRootMethod1(new ProbeRegistry(environment));
+    }
+
+    @Benchmark
+    public boolean rootApps() {
+        return RootDetectionChecks.checkRootMethod2(new ProbeRegistry(environment));
+    }
+
+    @Benchmark
+    public boolean buildTags() {
+        return RootDetectionChecks.checkRootMethod3(environment);
+    }
+
+    @Benchmark
+    public boolean dangerousProps() {
+        return RootDetectionChecks.checkForDangerousProps(environment);
+    }
+
+    @Benchmark
+    public boolean suBinaryExists() {
+        return RootDetectionChecks.checkForSuBinaryExistence(new ProbeRegistry(environment));
+    }
+
+    @Benchmark
+    public boolean rwSystem() {
+        return RootDetectionChecks.checkForRWSystem(environment.mounts.read());
+    }
+
+    @Benchmark
+    public boolean xposed() {
+        return RootDetectionChecks.checkForXposed(new ProbeRegistry(environment));
+    }
+
+    // Body of getRootInfo without the WritableMap conversion
+    @Benchmark
+    public boolean rootInfo() {
+        MountSnapshot mounts = environment.mounts.read();
+        ProbeRegistry probes = new ProbeRegistry(environment);
+        boolean rooted = RootDetectionChecks.checkRootMethod1(probes)
+                | RootDetectionChecks.checkRootMethod2(probes)
+                | RootDetectionChecks.checkRootMethod3(environment)
+                | RootDetectionChecks.checkRootMethod4(environment, probes, mounts);
+        return rooted
+                | RootDetectionChecks.checkForDangerousProps(environment)
+                | RootDetectionChecks.checkForRWSystem(mounts)
+                | RootDetectionChecks.checkForSuBinaryExistence(probes);
+    }
+}
@@ -0,0 +1,66 @@
+package com.blemanagerapps;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+// RootDetector's checks one by one and as runAllChecks. Every operation starts from a
+// fresh ProbeRegistry, as a scan does, so probe memoization is part of the cost.
+@State(Scope.Thread)
+public class RootDetectorBenchmark {
+
+    @Param({Fixtures.CLEAN, Fixtures.ROOTED})
+    public String device;
+
+    private RootEnvironment environment;
+
+    @Setup
+    public void setUp() {
+        environment = Fixtures.environment(device);
+    }
+
+    @Benchmark
+    public Object suBinaries() {
+        return new RootDetector(environment).checkSuBinaries();
+    }
+
+    @Benchmark
+    public Object magiskPaths() {
+        return new RootDetector(environment).checkMagiskPaths();
+    }
+
+    @Benchmark
+    public Object packages() {
+        return new RootDetector(environment).checkPackages();
+    }
+
+    @Benchmark
+    public Object hostsFile() {
+        return new RootDetector(environment).checkHostsFile();
+    }
+
+    @Benchmark
+    public Object addonOrInstallRecovery() {
+        return new RootDetector(environment).checkAddonOrInstallRecovery();
+    }
+
+    @Benchmark
+    public Object debugFingerprint() {
+        return new RootDetector(environment).checkDebugFingerprint();
+    }
+
+    @Benchmark
+    public List<RootDetector.Detection> runAllChecks() {
+        return new RootDetector(environment).runAllChecks(false);
+    }
+
+    // What getDetailedRootInfo runs when the native scan is available
+    @Benchmark
+    public List<RootDetector.Detection> runAllChecksNativeCovered() {
+        return new RootDetector(environment).runAllChecks(true);
+    }
+}
@@ -0,0 +1,17 @@
+package android.content;
+
+import android.content.pm.PackageManager;
+
+// Host stand-in for the benchmarks and tests. Fixtures bypass PackageIndex, PackageIndexTest
+// subclasses it.
+public abstract class Context {
+    public static final int RECEIVER_NOT_EXPORTED = 4;
+
+    public abstract Context getApplicationContext();
+
+    public abstract PackageManager getPackageManager();
+
+    public abstract Intent registerReceiver(BroadcastReceiver receiver, IntentFilter filter);
+
+    public abstract Intent registerReceiver(BroadcastReceiver receiver, IntentFilter filter, int flags);
+}
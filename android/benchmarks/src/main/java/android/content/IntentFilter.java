@@ -0,0 +1,10 @@
+package android.content;
+
+// Host stand-in for the benchmarks
+public class IntentFilter {
+    public void addAction(String action) {
+    }
+
+    public void addDataScheme(String scheme) {
+    }
+}
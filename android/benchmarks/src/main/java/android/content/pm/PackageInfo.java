@@ -0,0 +1,6 @@
+package android.content.pm;
+
+// Host stand-in for the benchmarks
+public class PackageInfo {
+    public String packageName;
+}
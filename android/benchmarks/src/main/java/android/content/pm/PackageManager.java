@@ -0,0 +1,13 @@
+package android.content.pm;
+
+import java.util.List;
+
+// Host stand-in for the benchmarks
+public abstract class PackageManager {
+    public static class NameNotFoundException extends Exception {
+    }
+
+    public abstract PackageInfo getPackageInfo(String packageName, int flags) throws NameNotFoundException;
+
+    public abstract List<PackageInfo> getInstalledPackages(int flags);
+}
@@ -0,0 +1,15 @@
+package android.os;
+
+// Host stand-in for the benchmarks; fixtures set tags and fingerprint on RootEnvironment instead
+public class Build {
+    public static final String TAGS = "release-keys";
+    public static final String FINGERPRINT = "host/host/host:14/HOST/1:user/release-keys";
+
+    public static class VERSION {
+        public static final int SDK_INT = 34;
+    }
+
+    public static class VERSION_CODES {
+        public static final int TIRAMISU = 33;
+    }
+}
@@ -0,0 +1,16 @@
+package android.os;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// Host stand-in for the benchmarks
+public final class Debug {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private Debug() {
+    }
+
+    public static long threadCpuTimeNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+}
@@ -0,0 +1,15 @@
+package android.system;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Host stand-in for the benchmarks
+public final class Os {
+    private Os() {
+    }
+
+    public static String readlink(String path) throws IOException {
+        return Files.readSymbolicLink(Paths.get(path)).toString();
+    }
+}
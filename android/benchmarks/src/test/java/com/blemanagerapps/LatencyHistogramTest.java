@@ -0,0 +1,66 @@
+package com.blemanagerapps;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsArePowersOfTwo() {
+        assertEquals(0, LatencyHistogram.bucketOf(-5));
+        assertEquals(0, LatencyHistogram.bucketOf(0));
+        assertEquals(1, LatencyHistogram.bucketOf(1));
+        assertEquals(2, LatencyHistogram.bucketOf(2));
+        assertEquals(2, LatencyHistogram.bucketOf(3));
+        assertEquals(3, LatencyHistogram.bucketOf(4));
+        assertEquals(10, LatencyHistogram.bucketOf(1023));
+        assertEquals(11, LatencyHistogram.bucketOf(1024));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentileWithoutSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(-1, histogram.percentile(0.5));
+    }
+
+    @Test
+    public void percentileIsUpperBoundOfBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(10);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(1000);
+        }
+        assertEquals(100, histogram.count());
+        // 10 us is in [8, 16), 1000 us in [512, 1024)
+        assertEquals(15, histogram.percentile(0.5));
+        assertEquals(15, histogram.percentile(0.9));
+        assertEquals(1023, histogram.percentile(0.91));
+        assertEquals(1023, histogram.percentile(1.0));
+    }
+
+    @Test
+    public void zeroSamplesHaveTheirOwnBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(0);
+        histogram.record(5);
+        assertEquals(0, histogram.percentile(0.5));
+        assertEquals(7, histogram.percentile(0.99));
+    }
+
+    @Test
+    public void oldSamplesAgeOut() throws InterruptedException {
+        // Four 5 ms slots, the window is 20 ms
+        LatencyHistogram histogram = new LatencyHistogram(5);
+        histogram.record(100);
+        assertEquals(1, histogram.count());
+        Thread.sleep(40);
+        assertEquals(0, histogram.count());
+        assertEquals(-1, histogram.percentile(0.5));
+    }
+}
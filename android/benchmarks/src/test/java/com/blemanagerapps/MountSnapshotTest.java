@@ -0,0 +1,66 @@
+package com.blemanagerapps;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MountSnapshotTest {
+
+    @Test
+    public void parsesFieldsAroundOptionalTags() {
+        MountSnapshot snapshot = MountSnapshot.parse(Collections.singletonList(
+                "36 35 253:0 / /system ro,relatime shared:1 master:2 - ext4 /dev/block/dm-0 ro,seclabel"), "mnt:[1]");
+
+        assertEquals("mnt:[1]", snapshot.namespace);
+        assertEquals(1, snapshot.entries.size());
+        MountSnapshot.Entry entry = snapshot.entries.get(0);
+        assertEquals("/system", entry.mountPoint);
+        assertEquals("ext4", entry.fsType);
+        assertEquals("/dev/block/dm-0", entry.source);
+        assertEquals("ro,relatime", entry.options);
+        assertEquals("ro,seclabel", entry.superOptions);
+    }
+
+    @Test
+    public void parsesLineWithoutSourceOrSuperOptions() {
+        MountSnapshot snapshot = MountSnapshot.parse(Collections.singletonList(
+                "20 1 0:5 / /dev rw,nosuid - tmpfs"), "");
+
+        MountSnapshot.Entry entry = snapshot.entries.get(0);
+        assertEquals("tmpfs", entry.fsType);
+        assertEquals("", entry.source);
+        assertEquals("", entry.superOptions);
+    }
+
+    @Test
+    public void skipsMalformedLines() {
+        MountSnapshot snapshot = MountSnapshot.parse(Arrays.asList(
+                "",
+                "36 35 253:0 / /system ro,relatime",
+                "36 35 253:0 / /system ro,relatime -",
+                "37 35 253:1 / /vendor ro - ext4 /dev/block/dm-1 ro"), "");
+
+        assertEquals(1, snapshot.entries.size());
+        assertEquals("/vendor", snapshot.entries.get(0).mountPoint);
+    }
+
+    @Test
+    public void readWriteUsesPerMountOptions() {
+        MountSnapshot snapshot = MountSnapshot.parse(Arrays.asList(
+                "36 35 253:0 / /system ro,relatime - ext4 /dev/block/dm-0 rw,seclabel",
+                "40 36 0:20 / /system/bin rw,relatime - tmpfs magisk rw"), "");
+
+        MountSnapshot.Entry system = snapshot.entries.get(0);
+        assertTrue(system.hasOption("ro"));
+        assertFalse(system.hasOption("rw"));
+        assertFalse(system.hasOption("r"));
+        assertFalse(snapshot.isMountedReadWrite("/system", false));
+        assertTrue(snapshot.isMountedReadWrite("/system", true));
+        assertFalse(snapshot.isMountedReadWrite("/sys", true));
+    }
+}
@@ -0,0 +1,71 @@
+package com.blemanagerapps;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// Layout of the packed scan result, see native_scan.c
+public class NativeRootDetectionTest {
+
+    private static byte[] packed(int verdict, int spawns, String... fields) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(verdict);
+        out.write(spawns);
+        for (String field : fields) {
+            byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+            out.write(bytes, 0, bytes.length);
+            out.write(0);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void decodesHeaderWithoutDetections() {
+        NativeRootDetection.Result result = NativeRootDetection.decode(packed(0, 0));
+
+        assertFalse(result.magiskDetected);
+        assertFalse(result.suProcessRunning);
+        assertTrue(result.complete);
+        assertEquals(0, result.processSpawns);
+        assertTrue(result.detections.isEmpty());
+    }
+
+    @Test
+    public void decodesVerdictBits() {
+        NativeRootDetection.Result result = NativeRootDetection.decode(packed(0x1 | 0x2 | 0x4, 200));
+
+        assertTrue(result.magiskDetected);
+        assertTrue(result.suProcessRunning);
+        assertFalse(result.complete);
+        // Unsigned byte
+        assertEquals(200, result.processSpawns);
+    }
+
+    @Test
+    public void decodesDetectionPairs() {
+        NativeRootDetection.Result result = NativeRootDetection.decode(
+                packed(0x1, 2, "magiskMounts", "/sbin tmpfs", "selfMaps", "", "customRom", "ro.modversion=\u00fc"));
+
+        assertEquals(3, result.detections.size());
+        RootDetector.Detection first = result.detections.get(0);
+        assertEquals("magiskMounts", first.key);
+        assertEquals("/sbin tmpfs", first.details);
+        assertEquals(RootDetector.Detection.SOURCE_NATIVE, first.source);
+        assertEquals("", result.detections.get(1).details);
+        assertEquals("ro.modversion=\u00fc", result.detections.get(2).details);
+    }
+
+    @Test
+    public void dropsTruncatedDetection() {
+        byte[] full = packed(0, 0, "selfMaps", "frida-agent");
+        byte[] truncated = new byte[full.length - 1];
+        System.arraycopy(full, 0, truncated, 0, truncated.length);
+
+        assertTrue(NativeRootDetection.decode(truncated).detections.isEmpty());
+    }
+}
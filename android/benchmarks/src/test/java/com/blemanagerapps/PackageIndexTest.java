@@ -0,0 +1,85 @@
+package com.blemanagerapps;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PackageIndexTest {
+
+    // Listing always fails, as with a binder transaction too large for the package count
+    private static class FailingPackageManager extends PackageManager {
+        int listings;
+        int lookups;
+
+        @Override
+        public PackageInfo getPackageInfo(String packageName, int flags) throws NameNotFoundException {
+            lookups++;
+            if (!"com.topjohnwu.magisk".equals(packageName)) {
+                throw new NameNotFoundException();
+            }
+            return new PackageInfo();
+        }
+
+        @Override
+        public List<PackageInfo> getInstalledPackages(int flags) {
+            listings++;
+            throw new RuntimeException("TransactionTooLargeException");
+        }
+    }
+
+    private static class TestContext extends Context {
+        final PackageManager packageManager;
+
+        TestContext(PackageManager packageManager) {
+            this.packageManager = packageManager;
+        }
+
+        @Override
+        public Context getApplicationContext() {
+            return this;
+        }
+
+        @Override
+        public PackageManager getPackageManager() {
+            return packageManager;
+        }
+
+        @Override
+        public Intent registerReceiver(BroadcastReceiver receiver, IntentFilter filter) {
+            return null;
+        }
+
+        @Override
+        public Intent registerReceiver(BroadcastReceiver receiver, IntentFilter filter, int flags) {
+            return null;
+        }
+    }
+
+    @Test
+    public void failedListingIsNotRetriedUntilPackagesChange() {
+        FailingPackageManager packageManager = new FailingPackageManager();
+        PackageIndex index = PackageIndex.getInstance(new TestContext(packageManager));
+
+        assertTrue(index.contains("com.topjohnwu.magisk"));
+        assertFalse(index.contains("eu.chainfire.supersu"));
+        index.preload();
+        assertFalse(index.contains("com.koushikdutta.superuser"));
+        assertEquals(1, packageManager.listings);
+        assertEquals(3, packageManager.lookups);
+
+        index.invalidate();
+        assertTrue(index.contains("com.topjohnwu.magisk"));
+        assertEquals(2, packageManager.listings);
+    }
+}
@@ -0,0 +1,108 @@
+package com.blemanagerapps;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RootCheckEngineTest {
+
+    private final RootCheckEngine engine = RootCheckEngine.getInstance();
+
+    @Test
+    public void reportsResultsInGivenOrderAndFailuresAsNegative() {
+        Map<String, Boolean> results = engine.runAll(Arrays.asList(
+                new RootCheck("positive", RootCheck.Cost.FILE_STAT, () -> true),
+                new RootCheck("failing", RootCheck.Cost.PROCESS, () -> {
+                    throw new IllegalStateException("probe failed");
+                }),
+                new RootCheck("negative", RootCheck.Cost.NATIVE, () -> false)));
+
+        assertEquals(Arrays.asList("positive", "failing", "negative"), Arrays.asList(results.keySet().toArray()));
+        assertTrue(results.get("positive"));
+        assertFalse(results.get("failing"));
+        assertFalse(results.get("negative"));
+    }
+
+    @Test
+    public void cachesBootAndTtlChecksOnly() {
+        RootCheckCache cache = new RootCheckCache();
+        AtomicInteger ttlRuns = new AtomicInteger();
+        AtomicInteger volatileRuns = new AtomicInteger();
+        RootCheck ttl = new RootCheck("ttl", RootCheck.Cost.FILE_STAT, RootCheck.Tier.TTL, () -> {
+            ttlRuns.incrementAndGet();
+            return true;
+        }).scoped("RootCheckEngineTest");
+        RootCheck volatileCheck = new RootCheck("volatile", RootCheck.Cost.FILE_STAT, () -> {
+            volatileRuns.incrementAndGet();
+            return false;
+        }).scoped("RootCheckEngineTest");
+
+        for (int i = 0; i < 3; i++) {
+            ScanMetrics.Scan scan = ScanMetrics.getInstance().beginScan();
+            Map<String, Boolean> results = engine.runAll(Arrays.asList(ttl, volatileCheck), cache, scan);
+            assertTrue(results.get("ttl"));
+            assertEquals(i > 0, scan.finish(Collections.singletonList(ttl)).checks.get("ttl").cached);
+        }
+        assertEquals(1, ttlRuns.get());
+        assertEquals(3, volatileRuns.get());
+        assertEquals(Boolean.TRUE, cache.get(ttl));
+        assertNull(cache.get(volatileCheck));
+    }
+
+    @Test
+    public void deadlineInterruptsSlowChecks() {
+        RootCheckCache cache = new RootCheckCache();
+        RootCheck slow = new RootCheck("slow", RootCheck.Cost.PROCESS, RootCheck.Tier.TTL, () -> {
+            Thread.sleep(10_000);
+            return true;
+        });
+        RootCheck fast = new RootCheck("fast", RootCheck.Cost.FILE_STAT, RootCheck.Tier.TTL, () -> true);
+        ScanMetrics.Scan scan = ScanMetrics.getInstance().beginScan();
+
+        long start = System.nanoTime();
+        Map<String, Boolean> results = engine.runAll(Arrays.asList(slow, fast), cache, scan, 100);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue("returned after " + elapsedMs + " ms", elapsedMs < 1_000);
+        assertFalse(results.get("slow"));
+        assertTrue(results.get("fast"));
+        ScanMetrics.Summary summary = scan.finish(Arrays.asList(slow, fast));
+        assertTrue(summary.checks.get("slow").timedOut);
+        assertFalse(summary.checks.get("fast").timedOut);
+        assertNull(cache.get(slow));
+        assertEquals(Boolean.TRUE, cache.get(fast));
+    }
+
+    @Test
+    public void abandonedCheckFinishingLateIsNotCached() throws InterruptedException {
+        RootCheckCache cache = new RootCheckCache();
+        CountDownLatch finished = new CountDownLatch(1);
+        // Ignores interrupts and answers false, as a probe does once interrupted
+        RootCheck stubborn = new RootCheck("stubborn", RootCheck.Cost.PROCESS, RootCheck.Tier.TTL, () -> {
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+            while (System.nanoTime() < until) {
+                // busy
+            }
+            finished.countDown();
+            return false;
+        }).scoped("RootCheckEngineTest");
+
+        Map<String, Boolean> results = engine.runAll(Collections.singletonList(stubborn), cache, null, 50);
+
+        assertFalse(results.get("stubborn"));
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        // Give the worker time to return from the check
+        Thread.sleep(50);
+        assertNull(cache.get(stubborn));
+    }
+}
@@ -1,8 +1,8 @@
 import axios from 'axios';
 import React from 'react';
-import {View, Button, ActivityIndicator, NativeModules} from 'react-native';
-
-const {RootCheckModule, FileCheckModule} = NativeModules;
+import {View, Button, ActivityIndicator} from 'react-native';
+import RootCheckModule from '../../specs/NativeRootCheckModule';
+import FileCheckModule from '../../specs/NativeFileCheckModule';
 
 export const ROOT_DETECTION_PATH = [
   // Magisk and Zygisk-related paths
@@ -92,10 +92,8 @@ const RequestApiScreen = () => {
 
   const checkForZygiskFiles = async () => {
     try {
-      const results = await Promise.all(
-        ROOT_DETECTION_PATH.map(path => FileCheckModule.doesFileExist(path)),
-      );
-      return results.some(result => result === true);
+      // One bridge call for the whole list, stops at the first existing path
+      return await FileCheckModule.doesAnyFileExist(ROOT_DETECTION_PATH);
     } catch (error) {
       console.error('Error checking for Zygisk files:', error);
       return false;
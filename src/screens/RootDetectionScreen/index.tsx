@@ -63,6 +63,14 @@ const RootDetectionScreen = () => {
           • Native C Root Detection:{' '}
           {rootInfo.checks.nativeRooted ? '⚠️ Found' : '✅ Not Found'}
         </Text>
+        <Text>
+          • Root Indicators:{' '}
+          {rootInfo.checks.rootIndicators ? '⚠️ Found' : '✅ Not Found'}
+        </Text>
+        <Text>
+          • Tamper Indicators:{' '}
+          {rootInfo.checks.tamperIndicators ? '⚠️ Found' : '✅ Not Found'}
+        </Text>
       </View>
 
       <TouchableOpacity
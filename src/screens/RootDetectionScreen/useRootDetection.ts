@@ -1,21 +1,43 @@
 // useRootDetection.js - Safe React Native Hook
 import { useState, useEffect } from 'react';
-import { NativeModules, Platform } from 'react-native';
+import { NativeEventEmitter, Platform } from 'react-native';
+import EnhancedRootDetectionModule from '../../specs/NativeEnhancedRootDetectionModule';
 
-const { EnhancedRootDetectionModule } = NativeModules;
+// Last scan result kept natively (e.g. by an earlier screen), read synchronously
+const getCachedStatus = () => {
+  if (Platform.OS !== 'android' || !EnhancedRootDetectionModule) {
+    return null;
+  }
+  try {
+    return EnhancedRootDetectionModule.getCachedStatus();
+  } catch (error) {
+    return null;
+  }
+};
 
 const useRootDetection = (options = {}) => {
-  const [rootStatus, setRootStatus] = useState({
-    isRooted: false,
-    isLoading: true,
-    riskScore: 0,
-    checks: {},
-    error: null
+  const [rootStatus, setRootStatus] = useState(() => {
+    const cached = getCachedStatus();
+    return {
+      isRooted: cached ? cached.isRooted : false,
+      isLoading: true,
+      riskScore: cached ? cached.riskScore : 0,
+      checks: {},
+      detections: [],
+      timings: null,
+      timedOut: [],
+      partial: false,
+      profile: null,
+      error: null
+    };
   });
 
   const { 
     enableAutoCheck = true,
-    checkInterval = null, // Set to number of ms for periodic checks
+    checkInterval = null, // Set to number of ms for periodic checks (base of the native adaptive interval)
+    watchFilesystem = false, // Re-check when files appear or disappear in root indicator directories
+    profile = null, // 'quick' | 'standard' | 'deep': which checks run, see ScanOptions (native default 'deep'; periodic checks always run 'deep')
+    deadlineMs = null, // Upper bound on a check in ms, checks still running then are reported in timedOut (default: the profile's budget)
     onRootDetected = null // Callback when root is detected
   } = options;
 
@@ -42,24 +64,11 @@ const useRootDetection = (options = {}) => {
       setRootStatus(prev => ({ ...prev, isLoading: true, error: null }));
       
       // Get detailed root information using PASSIVE methods only
-      const result = await EnhancedRootDetectionModule.getDetailedRootInfo();
-      
-      const newStatus = {
-        isRooted: result.isRooted,
-        riskScore: result.riskScore,
-        checks: result.checks,
-        isLoading: false,
-        error: null
-      };
-
-      setRootStatus(newStatus);
-
-      // Call callback if root detected
-      if (result.isRooted && onRootDetected) {
-        onRootDetected(newStatus);
-      }
-
-      return newStatus;
+      const result = await EnhancedRootDetectionModule.getDetailedRootInfo({
+        ...(profile ? { profile } : {}),
+        ...(deadlineMs ? { deadlineMs } : {})
+      });
+      return applyResult(result);
     } catch (error) {
       console.error('Root detection error:', error);
       setRootStatus(prev => ({
@@ -71,27 +80,95 @@ const useRootDetection = (options = {}) => {
     }
   };
 
+  const applyResult = result => {
+    const newStatus = {
+      isRooted: result.isRooted,
+      riskScore: result.riskScore,
+      checks: result.checks,
+      detections: result.detections || [],
+      // Per-check wallMs/cpuMs of this scan, plus its totalMs, jniCalls and processSpawns
+      timings: result.timings || null,
+      // Checks that missed the deadline and count as negative; isRooted and riskScore
+      // are then lower bounds
+      timedOut: result.timedOut || [],
+      partial: !!result.partial,
+      // Profile the scan ran with; quick and standard leave checks out
+      profile: result.profile || null,
+      isLoading: false,
+      error: null
+    };
+
+    setRootStatus(newStatus);
+
+    // Call callback if root detected
+    if (result.isRooted && onRootDetected) {
+      onRootDetected(newStatus);
+    }
+
+    return newStatus;
+  };
+
   useEffect(() => {
-    if (enableAutoCheck) {
+    const monitored = checkInterval && checkInterval > 0 &&
+      Platform.OS === 'android' && EnhancedRootDetectionModule;
+
+    // The native monitor scans right away, no separate initial check needed
+    if (enableAutoCheck && !monitored) {
       performRootCheck();
     }
 
-    // Set up periodic checks if requested
-    let intervalId;
-    if (checkInterval && checkInterval > 0) {
-      intervalId = setInterval(performRootCheck, checkInterval);
+    // Periodic checks run on a native scheduler with an adaptive interval
+    // (checkInterval is the base) and only report when the verdict or risk score changes
+    if (!monitored) {
+      return;
     }
 
+    const emitter = new NativeEventEmitter(EnhancedRootDetectionModule);
+    const subscription = emitter.addListener('RootStatusChanged', applyResult);
+    EnhancedRootDetectionModule.startMonitoring(checkInterval, {
+      ...(profile ? { profile } : {}),
+      ...(deadlineMs ? { deadlineMs } : {})
+    });
+
     return () => {
-      if (intervalId) {
-        clearInterval(intervalId);
-      }
+      subscription.remove();
+      EnhancedRootDetectionModule.stopMonitoring();
+    };
+  }, [enableAutoCheck, checkInterval, profile, deadlineMs]);
+
+  useEffect(() => {
+    if (!watchFilesystem || Platform.OS !== 'android' || !EnhancedRootDetectionModule) {
+      return;
+    }
+
+    const emitter = new NativeEventEmitter(EnhancedRootDetectionModule);
+    // Installers touch several files at once, rescan once the burst is over
+    let debounceId;
+    const subscription = emitter.addListener('RootPathChanged', () => {
+      clearTimeout(debounceId);
+      debounceId = setTimeout(performRootCheck, 500);
+    });
+    EnhancedRootDetectionModule.startWatching().catch(error => {
+      console.warn('Root path watcher unavailable:', error.message);
+    });
+
+    return () => {
+      clearTimeout(debounceId);
+      subscription.remove();
+      EnhancedRootDetectionModule.stopWatching();
     };
-  }, [enableAutoCheck, checkInterval]);
+  }, [watchFilesystem]);
 
   return {
     ...rootStatus,
     checkNow: performRootCheck,
+    // Aggregated per-check latency percentiles and counts, null where unavailable
+    getScanMetrics: async () => {
+      if (Platform.OS !== 'android' || !EnhancedRootDetectionModule) {
+        return null;
+      }
+      return EnhancedRootDetectionModule.getScanMetrics();
+    },
     getRiskLevel: () => {
       if (rootStatus.riskScore >= 70) return 'HIGH';
       if (rootStatus.riskScore >= 40) return 'MEDIUM';
@@ -0,0 +1,40 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+export type CachedRootStatus = {
+  isRooted: boolean;
+  riskScore: number;
+  ageMs: number;
+};
+
+export type ScanOptions = {
+  // Which checks run (ScanProfile.java), with its latency budget:
+  // 'quick' (150 ms, login gates: no RootBeer, no child processes, no /proc walk),
+  // 'standard' (1 s, adds RootBeer) or 'deep' (10 s, everything; the default)
+  profile?: string;
+  // Checks still running after this long are abandoned and listed in the result's
+  // timedOut, with partial set. Defaults to the profile's budget.
+  deadlineMs?: number;
+};
+
+export interface Spec extends TurboModule {
+  isRooted(): Promise<boolean>;
+  getDetailedRootInfo(options?: ScanOptions | null): Promise<Object>;
+  // Result of the last full scan without running one, null before the first scan
+  getCachedStatus(): CachedRootStatus | null;
+  // Per-check latency percentiles, error and cache hit counts, JNI calls and child
+  // processes, aggregated over the scans since app start
+  getScanMetrics(): Promise<Object>;
+
+  startWatching(): Promise<Array<string>>;
+  stopWatching(): Promise<void>;
+  // options apply to every scan of the monitor, as for getDetailedRootInfo
+  startMonitoring(intervalMs: number, options?: ScanOptions | null): Promise<void>;
+  stopMonitoring(): Promise<void>;
+
+  // NativeEventEmitter
+  addListener(eventName: string): void;
+  removeListeners(count: number): void;
+}
+
+export default TurboModuleRegistry.get<Spec>('EnhancedRootDetectionModule');
@@ -0,0 +1,11 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+export interface Spec extends TurboModule {
+  doesFileExist(filePath: string): Promise<boolean>;
+  doesAnyFileExist(filePaths: Array<string>): Promise<boolean>;
+  // { [path]: boolean }
+  doFilesExist(filePaths: Array<string>): Promise<Object>;
+}
+
+export default TurboModuleRegistry.get<Spec>('FileCheckModule');
@@ -0,0 +1,8 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+export interface Spec extends TurboModule {
+  isDeviceRooted(): Promise<boolean>;
+}
+
+export default TurboModuleRegistry.get<Spec>('RootCheckModule');
@@ -0,0 +1,10 @@
+import type {TurboModule} from 'react-native';
+import {TurboModuleRegistry} from 'react-native';
+
+export interface Spec extends TurboModule {
+  isRooted(): Promise<boolean>;
+  getRootInfo(): Promise<Object>;
+  hasXposed(): Promise<boolean>;
+}
+
+export default TurboModuleRegistry.get<Spec>('RootDetectionModule');